@@ -0,0 +1,95 @@
+#!/usr/bin/env bash
+# Compares platform-thread and virtual-thread request execution under load.
+#
+# Requires a JDK 21 on the PATH, wrk, curl and a running Postgres (docker compose up postgres_jwt).
+# The filter is switched to load-user mode so that every request blocks on a JDBC lookup.
+#
+# Usage: scripts/compare-threading.sh [connections...]   (default: 1000 5000 10000)
+# Env:   DURATION (default 30s), WARMUP (default 10s), THREADS (default nproc), PORT (default 8443)
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+CONNECTIONS=("$@")
+if [ ${#CONNECTIONS[@]} -eq 0 ]; then
+    CONNECTIONS=(1000 5000 10000)
+fi
+DURATION=${DURATION:-30s}
+WARMUP=${WARMUP:-10s}
+THREADS=${THREADS:-$(nproc)}
+PORT=${PORT:-8443}
+BASE_URL="https://localhost:${PORT}"
+OUT=target/threading-loadtest
+JAR=target/jwt-1.0.0.jar
+
+java_major=$(java -XshowSettings:properties -version 2>&1 | awk -F'= ' '/java.specification.version/ {print $2}')
+if [ "${java_major%%.*}" -lt 21 ]; then
+    echo "Virtual threads need JDK 21 or newer, found ${java_major}" >&2
+    exit 1
+fi
+command -v wrk >/dev/null || { echo "wrk is not installed" >&2; exit 1; }
+
+ulimit -n 65535 2>/dev/null || echo "warning: could not raise open file limit, high connection counts may fail" >&2
+
+./mvnw -B -q -Pjava21 -DskipTests package
+mkdir -p "$OUT"
+
+start_app() {
+    local profile=$1
+    java -jar "$JAR" \
+        --spring.profiles.active="$profile" \
+        --server.port="$PORT" \
+        --server.tomcat.max-connections=10000 \
+        --jwt.authentication.load-user=true \
+        --logging.file.name="$OUT/$profile.log" \
+        > "$OUT/$profile.out" 2>&1 &
+    APP_PID=$!
+    for _ in $(seq 1 60); do
+        if curl -ks -o /dev/null "$BASE_URL/api/endpoint/for-everyone"; then
+            return
+        fi
+        sleep 1
+    done
+    echo "Application did not start, see $OUT/$profile.out" >&2
+    exit 1
+}
+
+stop_app() {
+    kill "$APP_PID" 2>/dev/null || true
+    wait "$APP_PID" 2>/dev/null || true
+}
+trap stop_app EXIT
+
+access_token() {
+    local username="loadtest-$RANDOM$RANDOM"
+    curl -ks -o /dev/null -H 'Content-Type: application/json' \
+        -d "{\"username\":\"$username\",\"password\":\"password\",\"role\":\"ROLE_USER\"}" \
+        "$BASE_URL/api/users"
+    curl -ks -H 'Content-Type: application/json' \
+        -d "{\"username\":\"$username\",\"password\":\"password\"}" \
+        "$BASE_URL/api/auth/login" | sed -E 's/.*"accessToken":"([^"]+)".*/\1/'
+}
+
+printf '%-16s %8s %12s %10s %10s %10s\n' mode conns "req/s" p50 p99 errors > "$OUT/summary.txt"
+
+for mode in platform virtual-threads; do
+    start_app "$mode"
+    token=$(access_token)
+    wrk -t "$THREADS" -c 100 -d "$WARMUP" -H "Authorization: Bearer $token" \
+        "$BASE_URL/api/endpoint/for-user" > /dev/null
+    for conns in "${CONNECTIONS[@]}"; do
+        result="$OUT/$mode-$conns.txt"
+        wrk -t "$THREADS" -c "$conns" -d "$DURATION" --timeout 10s --latency \
+            -H "Authorization: Bearer $token" "$BASE_URL/api/endpoint/for-user" > "$result"
+        rps=$(awk '/Requests\/sec/ {print $2}' "$result")
+        p50=$(awk '$1 == "50%" {print $2}' "$result")
+        p99=$(awk '$1 == "99%" {print $2}' "$result")
+        errors=$(awk '/Socket errors/ {gsub(",", ""); sum += $4 + $6 + $8 + $10}
+                      /Non-2xx/ {sum += $NF} END {print sum + 0}' "$result")
+        printf '%-16s %8s %12s %10s %10s %10s\n' "$mode" "$conns" "$rps" "$p50" "$p99" "$errors" >> "$OUT/summary.txt"
+    done
+    stop_app
+done
+
+cat "$OUT/summary.txt"
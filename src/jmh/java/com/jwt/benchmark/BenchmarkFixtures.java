@@ -0,0 +1,48 @@
+package com.jwt.benchmark;
+
+import com.jwt.entity.User;
+import com.jwt.repository.JpaSessionStore;
+import com.jwt.repository.TokenRepository;
+import com.jwt.repository.TokenWriteBehindBuffer;
+import com.jwt.security.JwtService;
+import com.jwt.security.RevocationJournal;
+import com.jwt.security.RevocationList;
+import com.jwt.security.SigningKeyRing;
+import com.jwt.security.VerifiedTokenCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.util.unit.DataSize;
+import java.time.Duration;
+
+import static org.mockito.Mockito.mock;
+
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtService jwtService(boolean verifiedTokenCache) {
+        return jwtService(verifiedTokenCache, "HS256");
+    }
+
+    static JwtService jwtService(boolean verifiedTokenCache, String signingAlgorithm) {
+        TokenRepository tokenRepository = mock(TokenRepository.class);
+        return new JwtService(
+                new JpaSessionStore(tokenRepository,
+                        new TokenWriteBehindBuffer(null, false, 1, 1, Duration.ofSeconds(1), Duration.ZERO)),
+                new VerifiedTokenCache(verifiedTokenCache, 10_000),
+                new RevocationList(tokenRepository, new RevocationJournal(false, "", DataSize.ofMegabytes(1)),
+                        100_000, 1000),
+                new SigningKeyRing("", "", "PKCS12", "", signingAlgorithm),
+                new SimpleMeterRegistry());
+    }
+
+    static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark-user");
+        user.setPassword("password");
+        user.setRole("ROLE_USER");
+        return user;
+    }
+}
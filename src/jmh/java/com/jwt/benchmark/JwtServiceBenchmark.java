@@ -0,0 +1,86 @@
+package com.jwt.benchmark;
+
+import com.jwt.entity.User;
+import com.jwt.security.JwtService;
+import com.jwt.security.VerifiedToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    @Param({"false", "true"})
+    public boolean verifiedTokenCache;
+
+    private JwtService jwtService;
+    private User user;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        jwtService = BenchmarkFixtures.jwtService(verifiedTokenCache);
+        user = BenchmarkFixtures.user();
+        accessToken = jwtService.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtService.generateAccessToken(user);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String generateAccessTokenParallel() {
+        return jwtService.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtService.generateRefreshToken(user.getUsername());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String generateRefreshTokenParallel() {
+        return jwtService.generateRefreshToken(user.getUsername());
+    }
+
+    @Benchmark
+    public VerifiedToken verify() {
+        return jwtService.verify(accessToken);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public VerifiedToken verifyParallel() {
+        return jwtService.verify(accessToken);
+    }
+
+    @Benchmark
+    public String extractUserName() {
+        return jwtService.extractUserName(accessToken);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String extractUserNameParallel() {
+        return jwtService.extractUserName(accessToken);
+    }
+}
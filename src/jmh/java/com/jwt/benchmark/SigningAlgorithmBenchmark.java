@@ -0,0 +1,51 @@
+package com.jwt.benchmark;
+
+import com.jwt.entity.User;
+import com.jwt.security.JwtService;
+import com.jwt.security.VerifiedToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SigningAlgorithmBenchmark {
+
+    @Param({"HS256", "ES256", "EdDSA", "RS256"})
+    public String algorithm;
+
+    private JwtService jwtService;
+    private User user;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        jwtService = BenchmarkFixtures.jwtService(false, algorithm);
+        user = BenchmarkFixtures.user();
+        accessToken = jwtService.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtService.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public VerifiedToken verify() {
+        return jwtService.verify(accessToken);
+    }
+}
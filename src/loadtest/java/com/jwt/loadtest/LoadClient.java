@@ -0,0 +1,132 @@
+package com.jwt.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jwt.dto.TokenDTO;
+import com.jwt.utils.AuthRequest;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LoadClient {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final HttpClient httpClient;
+    private final URI baseUri;
+    private final ObjectMapper objectMapper;
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    public LoadClient(URI baseUri, ObjectMapper objectMapper) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_NANOS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public void createUser(String username, String password) throws IOException, InterruptedException {
+        Map<String, String> user = Map.of("username", username, "password", password, "role", "ROLE_USER");
+        HttpResponse<String> response = httpClient.send(post("/api/users", user), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Cannot create user " + username + ": "
+                    + response.statusCode() + " " + response.body());
+        }
+    }
+
+    public TokenDTO login(String username, String password) {
+        AuthRequest authRequest = new AuthRequest();
+        authRequest.setUsername(username);
+        authRequest.setPassword(password);
+        return tokens(send(Operation.LOGIN, post("/api/auth/login", authRequest)));
+    }
+
+    public boolean request(TokenDTO session) {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/api/endpoint/for-user"))
+                .header("Authorization", "Bearer " + session.getAccessToken())
+                .GET()
+                .build();
+        return send(Operation.REQUEST, request) != null;
+    }
+
+    public TokenDTO refresh(TokenDTO session) {
+        TokenDTO tokenDTO = new TokenDTO();
+        tokenDTO.setRefreshToken(session.getRefreshToken());
+        return tokens(send(Operation.REFRESH, post("/api/auth/refresh", tokenDTO)));
+    }
+
+    public boolean logout(TokenDTO session) {
+        return send(Operation.LOGOUT, post("/api/auth/logout", session)) != null;
+    }
+
+    public void reset() {
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(LongAdder::reset);
+    }
+
+    public Histogram histogram(Operation operation) {
+        return recorders.get(operation).getIntervalHistogram();
+    }
+
+    public long errors(Operation operation) {
+        return errors.get(operation).sum();
+    }
+
+    private HttpResponse<String> send(Operation operation, HttpRequest request) {
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            errors.get(operation).increment();
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        recorders.get(operation).recordValue(Math.min(System.nanoTime() - start, HIGHEST_TRACKABLE_NANOS));
+        if (response.statusCode() >= 400) {
+            errors.get(operation).increment();
+            return null;
+        }
+        return response;
+    }
+
+    private TokenDTO tokens(HttpResponse<String> response) {
+        if (response == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(response.body(), TokenDTO.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest post(String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(baseUri.resolve(path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
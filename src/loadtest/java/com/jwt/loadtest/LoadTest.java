@@ -0,0 +1,166 @@
+package com.jwt.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jwt.JwtApplication;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.reactive.context.ReactiveWebApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public final class LoadTest {
+
+    private static final String PASSWORD = "load-test-password";
+
+    private static final Map<String, String> EMBEDDED_PROPERTIES = Map.ofEntries(
+            Map.entry("server.port", "0"),
+            Map.entry("server.ssl.enabled", "false"),
+            Map.entry("spring.datasource.url", "jdbc:h2:mem:loadtest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1"),
+            Map.entry("spring.datasource.driver-class-name", "org.h2.Driver"),
+            Map.entry("spring.datasource.username", "sa"),
+            Map.entry("spring.datasource.password", ""),
+            Map.entry("spring.r2dbc.url", "r2dbc:h2:mem:///loadtest?options=DB_CLOSE_DELAY=-1;MODE=PostgreSQL"),
+            Map.entry("spring.r2dbc.username", "sa"),
+            Map.entry("spring.r2dbc.password", ""),
+            Map.entry("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect"),
+            Map.entry("spring.jpa.show-sql", "false"),
+            Map.entry("logging.file.name", "target/loadtest/application.log"),
+            Map.entry("logging.threshold.console", "WARN"),
+            Map.entry("logging.level.io.r2dbc.h2", "ERROR"));
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        EMBEDDED_PROPERTIES.forEach(System.getProperties()::putIfAbsent);
+        try (ConfigurableApplicationContext context = SpringApplication.run(JwtApplication.class, args)) {
+            Environment environment = context.getEnvironment();
+            int users = environment.getProperty("loadtest.users", Integer.class, 100);
+            int concurrency = environment.getProperty("loadtest.concurrency", Integer.class, 16);
+            int requestsPerSession = environment.getProperty("loadtest.requests-per-session", Integer.class, 10);
+            Duration warmup = environment.getProperty("loadtest.warmup", Duration.class, Duration.ofSeconds(10));
+            Duration duration = environment.getProperty("loadtest.duration", Duration.class, Duration.ofSeconds(30));
+            Mix mix = Mix.valueOf(environment.getProperty("loadtest.mix", "full").toUpperCase(Locale.ROOT));
+            Path output = Path.of(environment.getProperty("loadtest.output", "target/loadtest/result.json"));
+            if (users < concurrency) {
+                throw new IllegalArgumentException("loadtest.users (" + users
+                        + ") must not be lower than loadtest.concurrency (" + concurrency + ")");
+            }
+
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            LoadClient client = new LoadClient(
+                    URI.create("http://localhost:" + environment.getProperty("local.server.port")), objectMapper);
+            ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+            try {
+                List<String> usernames = seed(client, executor, users);
+
+                long measureFrom = System.nanoTime() + warmup.toNanos();
+                long deadline = measureFrom + duration.toNanos();
+                List<Future<?>> workers = new ArrayList<>(concurrency);
+                for (int i = 0; i < concurrency; i++) {
+                    List<String> assigned = new ArrayList<>();
+                    for (int j = i; j < usernames.size(); j += concurrency) {
+                        assigned.add(usernames.get(j));
+                    }
+                    workers.add(executor.submit(
+                            new Worker(client, mix, assigned, PASSWORD, requestsPerSession, deadline)));
+                }
+                TimeUnit.NANOSECONDS.sleep(measureFrom - System.nanoTime());
+                client.reset();
+                for (Future<?> worker : workers) {
+                    worker.get();
+                }
+                double seconds = (System.nanoTime() - measureFrom) / 1e9;
+
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("stack", context instanceof ReactiveWebApplicationContext ? "reactive" : "servlet");
+                result.put("mix", mix.name().toLowerCase(Locale.ROOT));
+                result.put("users", users);
+                result.put("concurrency", concurrency);
+                result.put("requestsPerSession", requestsPerSession);
+                result.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+                result.put("warmupSeconds", warmup.toSeconds());
+                result.put("durationSeconds", round(seconds));
+                result.putAll(report(client, seconds));
+
+                Files.createDirectories(output.toAbsolutePath().getParent());
+                objectMapper.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), result);
+                System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(result));
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static List<String> seed(LoadClient client, ExecutorService executor, int users) throws Exception {
+        List<String> usernames = new ArrayList<>(users);
+        List<Future<?>> created = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            String username = "loadtest-user-" + i;
+            usernames.add(username);
+            created.add(executor.submit(() -> {
+                client.createUser(username, PASSWORD);
+                return null;
+            }));
+        }
+        for (Future<?> future : created) {
+            future.get();
+        }
+        return usernames;
+    }
+
+    private static Map<String, Object> report(LoadClient client, double seconds) {
+        Map<String, Object> operations = new LinkedHashMap<>();
+        long requests = 0;
+        long errors = 0;
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = client.histogram(operation);
+            long operationErrors = client.errors(operation);
+            if (histogram.getTotalCount() == 0 && operationErrors == 0) {
+                continue;
+            }
+            requests += histogram.getTotalCount();
+            errors += operationErrors;
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", histogram.getTotalCount());
+            summary.put("errors", operationErrors);
+            summary.put("throughput", round(histogram.getTotalCount() / seconds));
+            summary.put("meanMillis", round(histogram.getMean() / 1e6));
+            summary.put("p50Millis", millis(histogram, 50.0));
+            summary.put("p99Millis", millis(histogram, 99.0));
+            summary.put("p999Millis", millis(histogram, 99.9));
+            summary.put("maxMillis", round(histogram.getMaxValue() / 1e6));
+            operations.put(operation.getKey(), summary);
+        }
+
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("requests", requests);
+        totals.put("errors", errors);
+        totals.put("throughput", round(requests / seconds));
+        totals.put("operations", operations);
+        return totals;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return round(histogram.getValueAtPercentile(percentile) / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,8 @@
+package com.jwt.loadtest;
+
+public enum Mix {
+
+    FULL,
+    READ,
+    LOGIN
+}
@@ -0,0 +1,19 @@
+package com.jwt.loadtest;
+
+public enum Operation {
+
+    LOGIN("login"),
+    REQUEST("request"),
+    REFRESH("refresh"),
+    LOGOUT("logout");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,76 @@
+package com.jwt.loadtest;
+
+import com.jwt.dto.TokenDTO;
+
+import java.util.List;
+
+class Worker implements Runnable {
+
+    private final LoadClient client;
+    private final Mix mix;
+    private final List<String> usernames;
+    private final String password;
+    private final int requestsPerSession;
+    private final long deadline;
+
+    private int next;
+    private TokenDTO session;
+
+    Worker(LoadClient client, Mix mix, List<String> usernames, String password, int requestsPerSession, long deadline) {
+        this.client = client;
+        this.mix = mix;
+        this.usernames = usernames;
+        this.password = password;
+        this.requestsPerSession = requestsPerSession;
+        this.deadline = deadline;
+    }
+
+    @Override
+    public void run() {
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            switch (mix) {
+                case FULL -> fullSession();
+                case READ -> read();
+                case LOGIN -> loginLogout();
+            }
+        }
+        if (session != null) {
+            client.logout(session);
+        }
+    }
+
+    private void fullSession() {
+        TokenDTO login = client.login(nextUsername(), password);
+        if (login == null) {
+            return;
+        }
+        for (int i = 0; i < requestsPerSession; i++) {
+            client.request(login);
+        }
+        TokenDTO refreshed = client.refresh(login);
+        client.logout(refreshed != null ? refreshed : login);
+    }
+
+    private void read() {
+        if (session == null) {
+            session = client.login(nextUsername(), password);
+            return;
+        }
+        if (!client.request(session)) {
+            session = null;
+        }
+    }
+
+    private void loginLogout() {
+        TokenDTO login = client.login(nextUsername(), password);
+        if (login != null) {
+            client.logout(login);
+        }
+    }
+
+    private String nextUsername() {
+        String username = usernames.get(next);
+        next = (next + 1) % usernames.size();
+        return username;
+    }
+}
@@ -3,27 +3,35 @@ package com.jwt.controller;
 import com.jwt.dto.TokenDTO;
 import com.jwt.utils.AuthRequest;
 import com.jwt.service.AuthService;
+import com.jwt.security.LoginExecutor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.security.Principal;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginExecutor loginExecutor;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, LoginExecutor loginExecutor) {
         this.authService = authService;
+        this.loginExecutor = loginExecutor;
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody AuthRequest authRequest) {
-        TokenDTO tokenDTO = authService.login(authRequest);
-        return ResponseEntity.ok(tokenDTO);
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody AuthRequest authRequest) {
+        return loginExecutor.submit(() -> ResponseEntity.ok(authService.login(authRequest)));
     }
 
     @PostMapping("/refresh")
@@ -39,4 +47,10 @@ public class AuthController {
         }
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    @PreAuthorize("isAuthenticated()")
+    @PostMapping("/logout-all")
+    public ResponseEntity<String> logoutAll(Principal principal) {
+        return ResponseEntity.ok(authService.logoutAll(principal.getName()));
+    }
+}
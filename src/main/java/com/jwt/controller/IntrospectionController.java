@@ -0,0 +1,31 @@
+package com.jwt.controller;
+
+import com.jwt.dto.IntrospectionDTO;
+import com.jwt.dto.IntrospectionRequestDTO;
+import com.jwt.service.TokenIntrospectionService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/auth")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class IntrospectionController {
+
+    private final TokenIntrospectionService tokenIntrospectionService;
+
+    public IntrospectionController(TokenIntrospectionService tokenIntrospectionService) {
+        this.tokenIntrospectionService = tokenIntrospectionService;
+    }
+
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @PostMapping("/introspect")
+    public List<IntrospectionDTO> introspect(@RequestBody IntrospectionRequestDTO request) {
+        return tokenIntrospectionService.introspect(request.getTokens());
+    }
+}
@@ -0,0 +1,36 @@
+package com.jwt.controller;
+
+import com.jwt.security.SigningKeyRing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+public class JwksController {
+
+    private final SigningKeyRing signingKeyRing;
+    private final CacheControl cacheControl;
+
+    public JwksController(SigningKeyRing signingKeyRing,
+                          @Value("${jwt.jwks.max-age:PT15M}") Duration maxAge) {
+        this.signingKeyRing = signingKeyRing;
+        this.cacheControl = CacheControl.maxAge(maxAge)
+                .cachePublic()
+                .staleWhileRevalidate(maxAge)
+                .staleIfError(maxAge.multipliedBy(4));
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, ?>> jwks() {
+        SigningKeyRing.PublicKeySet publicKeys = signingKeyRing.getPublicKeys();
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(publicKeys.getEtag())
+                .body(Map.of("keys", publicKeys.getKeys()));
+    }
+}
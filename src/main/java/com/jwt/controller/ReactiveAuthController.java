@@ -0,0 +1,54 @@
+package com.jwt.controller;
+
+import com.jwt.dto.TokenDTO;
+import com.jwt.service.ReactiveAuthService;
+import com.jwt.utils.AuthRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+
+@RestController
+@RequestMapping("/api/auth")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthController {
+
+    private final ReactiveAuthService authService;
+
+    public ReactiveAuthController(ReactiveAuthService authService) {
+        this.authService = authService;
+    }
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<TokenDTO>> login(@RequestBody AuthRequest authRequest) {
+        return authService.login(authRequest).map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/refresh")
+    public Mono<TokenDTO> refresh(@RequestBody TokenDTO tokenDTO) {
+        return authService.refreshToken(tokenDTO);
+    }
+
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<String>> logout(@RequestBody TokenDTO tokenDTO) {
+        return authService.logout(tokenDTO).map(response -> {
+            if (response.equals("You have already logged out")) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            }
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    @PreAuthorize("isAuthenticated()")
+    @PostMapping("/logout-all")
+    public Mono<ResponseEntity<String>> logoutAll(Principal principal) {
+        return authService.logoutAll(principal.getName()).map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,39 @@
+package com.jwt.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/endpoint")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveEndpointController {
+
+    @PreAuthorize("permitAll()")
+    @GetMapping("/for-everyone")
+    public Mono<String> hello() {
+        return Mono.just("Hello World!");
+    }
+
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @GetMapping("/for-admin")
+    public Mono<ResponseEntity<String>> helloAdmin() {
+        return Mono.just(ResponseEntity.ok("Hello Admin!"));
+    }
+
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @GetMapping("/for-user")
+    public Mono<ResponseEntity<String>> helloUser() {
+        return Mono.just(ResponseEntity.ok("Hello User!"));
+    }
+
+    @PreAuthorize("hasAuthority('ROLE_SUPER_ADMIN')")
+    @GetMapping("/for-super-admin")
+    public Mono<ResponseEntity<String>> helloSuperAdmin() {
+        return Mono.just(ResponseEntity.ok("Hello Super Admin!"));
+    }
+}
@@ -0,0 +1,24 @@
+package com.jwt.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IntrospectionDTO {
+
+    private boolean active;
+    private String subject;
+    private List<String> authorities;
+    private Long exp;
+
+    public static IntrospectionDTO inactive() {
+        return new IntrospectionDTO(false, null, null, null);
+    }
+}
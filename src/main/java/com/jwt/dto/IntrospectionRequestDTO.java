@@ -0,0 +1,11 @@
+package com.jwt.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class IntrospectionRequestDTO {
+
+    private List<String> tokens;
+}
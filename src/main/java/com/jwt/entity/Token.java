@@ -1,14 +1,25 @@
 package com.jwt.entity;
 
+import com.jwt.utils.TokenDigest;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.Instant;
+
 @Entity
 @Getter
 @Setter
-@Table(name = "tokens")
+@Table(name = "tokens", indexes = {
+        @Index(name = "idx_tokens_username_is_valid", columnList = "username, is_valid"),
+        @Index(name = "uk_tokens_access_token_hash", columnList = "access_token_hash", unique = true),
+        @Index(name = "uk_tokens_refresh_token_hash", columnList = "refresh_token_hash", unique = true),
+        @Index(name = "idx_tokens_refresh_expires_at", columnList = "refresh_expires_at"),
+        @Index(name = "idx_tokens_invalidated_at", columnList = "invalidated_at")
+})
 public class Token {
 
+    public static final int MAX_TOKEN_LENGTH = 2048;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id")
@@ -17,12 +28,27 @@ public class Token {
     @Column(name = "username")
     private String username;
 
-    @Column(name = "access_token")
+    @Column(name = "access_token", length = MAX_TOKEN_LENGTH)
     private String accessToken;
 
-    @Column(name = "refresh_token")
+    @Column(name = "refresh_token", length = MAX_TOKEN_LENGTH)
     private String refreshToken;
 
+    @Column(name = "access_token_hash", length = TokenDigest.LENGTH)
+    private byte[] accessTokenHash;
+
+    @Column(name = "refresh_token_hash", length = TokenDigest.LENGTH)
+    private byte[] refreshTokenHash;
+
     @Column(name = "is_valid")
     private boolean isValid;
+
+    @Column(name = "access_expires_at")
+    private Instant accessExpiresAt;
+
+    @Column(name = "refresh_expires_at")
+    private Instant refreshExpiresAt;
+
+    @Column(name = "invalidated_at")
+    private Instant invalidatedAt;
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.jwt.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -23,6 +24,25 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
     }
 
+    @ExceptionHandler(LoginRejectedException.class)
+    public ResponseEntity<String> handleLoginRejectedException(LoginRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Too many concurrent login attempts, please retry");
+    }
+
+    @ExceptionHandler(SessionStoreFullException.class)
+    public ResponseEntity<String> handleSessionStoreFullException(SessionStoreFullException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "60")
+                .body("Too many active sessions, please retry later");
+    }
+
+    @ExceptionHandler(TooManyTokensException.class)
+    public ResponseEntity<String> handleTooManyTokensException(TooManyTokensException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
     @ExceptionHandler(UserExistException.class)
     public ResponseEntity<String> handleUserExistException(UserExistException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
@@ -0,0 +1,7 @@
+package com.jwt.exception;
+
+public class LoginRejectedException extends RuntimeException {
+    public LoginRejectedException(String message) {
+        super(message);
+    }
+}
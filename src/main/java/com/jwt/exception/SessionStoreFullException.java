@@ -0,0 +1,7 @@
+package com.jwt.exception;
+
+public class SessionStoreFullException extends RuntimeException {
+    public SessionStoreFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.jwt.exception;
+
+public class TooManyTokensException extends RuntimeException {
+    public TooManyTokensException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,437 @@
+package com.jwt.repository;
+
+import com.jwt.entity.Token;
+import com.jwt.exception.SessionStoreFullException;
+import com.jwt.utils.TokenDigest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+@ConditionalOnProperty(name = "jwt.session-store.type", havingValue = "memory")
+public class InMemorySessionStore implements SessionStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemorySessionStore.class);
+
+    private static final int ENTRY_BYTES = 4 * Long.BYTES + Integer.BYTES;
+
+    private static final int MIN_CAPACITY = 1024;
+
+    private static final long EMPTY = 0;
+    private static final long TOMBSTONE = Long.MIN_VALUE;
+
+    private static final long VALID = 1;
+    private static final long ACCESS = 2;
+
+    private static final int END = -1;
+    private static final int UNLINKED = -2;
+
+    private final int maxCapacity;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Table table;
+    private boolean full;
+
+    public InMemorySessionStore(@Value("${jwt.session-store.memory.max-size:64MB}") DataSize maxSize) {
+        long slots = Long.highestOneBit(Math.max(MIN_CAPACITY, maxSize.toBytes() / ENTRY_BYTES));
+        this.maxCapacity = (int) Math.min(slots, 1 << 30);
+        this.table = new Table(Math.min(MIN_CAPACITY, maxCapacity));
+    }
+
+    @Override
+    public List<RevokedSession> save(Token token, int maxSessions) {
+        long user = userKey(token.getUsername());
+        writeLock.lock();
+        try {
+            put(token, user);
+            return maxSessions > 0 ? evictOldestSessions(table, user, maxSessions) : List.of();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<Token> findByAccessTokenHash(byte[] accessTokenHash) {
+        long state = stateOf(TokenDigest.fingerprint(accessTokenHash));
+        if (state == 0 || (state & ACCESS) == 0) {
+            return Optional.empty();
+        }
+        Token token = new Token();
+        token.setAccessTokenHash(accessTokenHash);
+        token.setAccessExpiresAt(Instant.ofEpochMilli(expiresAt(state)));
+        token.setValid(isLive(state, System.currentTimeMillis()));
+        return Optional.of(token);
+    }
+
+    @Override
+    public Optional<Token> findActiveToken(String username, Instant now) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Set<ByteBuffer> findValidAccessTokenHashes(Collection<ByteBuffer> accessTokenHashes) {
+        long now = System.currentTimeMillis();
+        Set<ByteBuffer> valid = new HashSet<>();
+        for (ByteBuffer hash : accessTokenHashes) {
+            long state = stateOf(TokenDigest.fingerprint(hash.array()));
+            if ((state & ACCESS) != 0 && isLive(state, now)) {
+                valid.add(hash);
+            }
+        }
+        return valid;
+    }
+
+    @Override
+    public Optional<RevokedSession> invalidate(byte[] tokenHash) {
+        writeLock.lock();
+        try {
+            Table current = table;
+            int index = current.indexOf(TokenDigest.fingerprint(tokenHash));
+            return index < 0 ? Optional.empty() : Optional.of(invalidateSession(current, index));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<RevokedSession> rotate(byte[] refreshTokenHash, Token replacement) {
+        long user = userKey(replacement.getUsername());
+        writeLock.lock();
+        try {
+            Table current = table;
+            int index = current.indexOf(TokenDigest.fingerprint(refreshTokenHash));
+            if (index < 0) {
+                return Optional.empty();
+            }
+            long state = current.states.get(index);
+            if ((state & ACCESS) != 0 || !isLive(state, System.currentTimeMillis())) {
+                return Optional.empty();
+            }
+            RevokedSession previous = invalidateSession(current, index);
+            put(replacement, user);
+            return Optional.of(previous);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<RevokedSession> invalidateAll(String username) {
+        long user = userKey(username);
+        writeLock.lock();
+        try {
+            Table current = table;
+            int head = current.indexOf(user);
+            if (head < 0) {
+                return List.of();
+            }
+            List<RevokedSession> revoked = new ArrayList<>();
+            int index = current.next[head];
+            current.removeHead(head);
+            while (index >= 0) {
+                int following = current.next[index];
+                current.next[index] = UNLINKED;
+                if ((current.states.get(index) & VALID) != 0) {
+                    revoked.add(invalidateSession(current, index));
+                }
+                index = following;
+            }
+            return revoked;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Token> findAll() {
+        return List.of();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.session-store.memory.sweep-interval:PT1M}")
+    public void evictExpired() {
+        writeLock.lock();
+        try {
+            Table current = table;
+            long now = System.currentTimeMillis();
+            int evicted = 0;
+            for (int i = 0; i < current.capacity(); i++) {
+                long state = current.states.get(i);
+                if (state != 0 && expiresAt(state) <= now) {
+                    current.unlink(i);
+                    current.remove(i);
+                    evicted++;
+                }
+            }
+            if (current.tombstones > current.capacity() / 4) {
+                table = current.rehash(current.capacity());
+            }
+            if (evicted > 0) {
+                full = false;
+                logger.debug("Evicted {} expired session entries, {} live", evicted, table.live);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int size() {
+        Table current = table;
+        return current.live - current.heads;
+    }
+
+    public int capacity() {
+        return table.capacity();
+    }
+
+    private long stateOf(long key) {
+        while (true) {
+            Table current = table;
+            int index = current.indexOf(key);
+            if (index < 0) {
+                return 0;
+            }
+            long state = current.states.get(index);
+            if (current.keys.get(index) == key) {
+                return state;
+            }
+        }
+    }
+
+    private void put(Token token, long user) {
+        ensureCapacity(3);
+        long access = TokenDigest.fingerprint(token.getAccessTokenHash());
+        long refresh = TokenDigest.fingerprint(token.getRefreshTokenHash());
+        long valid = token.isValid() ? VALID : 0;
+        Table current = table;
+        current.put(access, refresh, user, state(token.getAccessExpiresAt()) | ACCESS | valid);
+        int index = current.put(refresh, access, user, state(token.getRefreshExpiresAt()) | valid);
+        if (valid != 0) {
+            current.link(index, user);
+        }
+    }
+
+    private void ensureCapacity(int entries) {
+        Table current = table;
+        if ((current.live + current.tombstones + entries) * 2L <= current.capacity()) {
+            return;
+        }
+        if (full) {
+            throw new SessionStoreFullException("Session store is full (" + current.live + " entries)");
+        }
+        int capacity = current.capacity();
+        while ((current.live + entries) * 2L > capacity && capacity < maxCapacity) {
+            capacity <<= 1;
+        }
+        Table rehashed = current.rehash(capacity);
+        if ((rehashed.live + entries) * 2L > rehashed.capacity()) {
+            table = rehashed;
+            full = true;
+            throw new SessionStoreFullException("Session store is full (" + rehashed.live + " entries)");
+        }
+        table = rehashed;
+    }
+
+    private List<RevokedSession> evictOldestSessions(Table current, long user, int maxSessions) {
+        int head = current.indexOf(user);
+        if (head < 0) {
+            return List.of();
+        }
+        long now = System.currentTimeMillis();
+        List<Integer> sessions = new ArrayList<>();
+        for (int index = current.next[head]; index >= 0; ) {
+            int following = current.next[index];
+            if (isLive(current.states.get(index), now)) {
+                sessions.add(index);
+            } else {
+                current.unlink(index);
+            }
+            index = following;
+        }
+        if (sessions.size() <= maxSessions) {
+            return List.of();
+        }
+        sessions.sort(Comparator.comparingLong((Integer i) -> expiresAt(current.states.get(i))).reversed());
+        List<RevokedSession> evicted = new ArrayList<>();
+        for (int index : sessions.subList(maxSessions, sessions.size())) {
+            evicted.add(invalidateSession(current, index));
+        }
+        return evicted;
+    }
+
+    private RevokedSession invalidateSession(Table current, int index) {
+        long state = current.states.get(index);
+        long partner = current.partners[index];
+        current.states.set(index, state & ~VALID);
+        int partnerIndex = current.indexOf(partner);
+        long partnerState = 0;
+        if (partnerIndex >= 0) {
+            partnerState = current.states.get(partnerIndex);
+            current.states.set(partnerIndex, partnerState & ~VALID);
+        }
+        boolean access = (state & ACCESS) != 0;
+        int refreshIndex = access ? partnerIndex : index;
+        if (refreshIndex >= 0) {
+            current.unlink(refreshIndex);
+        }
+        long accessKey = access ? current.keys.get(index) : partner;
+        long accessState = access ? state : partnerState;
+        Instant accessExpiresAt = accessState != 0 ? Instant.ofEpochMilli(expiresAt(accessState)) : Instant.now();
+        return new RevokedSession(accessKey, accessExpiresAt);
+    }
+
+    private static long state(Instant expiresAt) {
+        return expiresAt.toEpochMilli() << 2;
+    }
+
+    private static long expiresAt(long state) {
+        return state >>> 2;
+    }
+
+    private static boolean isLive(long state, long now) {
+        return (state & VALID) != 0 && expiresAt(state) > now;
+    }
+
+    private static long userKey(String username) {
+        return TokenDigest.fingerprint(TokenDigest.newSha256().digest(username.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static final class Table {
+
+        final AtomicLongArray keys;
+        final AtomicLongArray states;
+        final long[] partners;
+        final long[] users;
+        final int[] next;
+        final int mask;
+        int live;
+        int tombstones;
+        int heads;
+
+        Table(int capacity) {
+            this.keys = new AtomicLongArray(capacity);
+            this.states = new AtomicLongArray(capacity);
+            this.partners = new long[capacity];
+            this.users = new long[capacity];
+            this.next = new int[capacity];
+            this.mask = capacity - 1;
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+
+        int indexOf(long key) {
+            int index = spread(key) & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                long current = keys.get(index);
+                if (current == key) {
+                    return index;
+                }
+                if (current == EMPTY) {
+                    return -1;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        int put(long key, long partner, long user, long state) {
+            int index = spread(key) & mask;
+            while (true) {
+                long current = keys.get(index);
+                if (current == EMPTY || current == TOMBSTONE) {
+                    if (current == TOMBSTONE) {
+                        tombstones--;
+                    }
+                    keys.set(index, key);
+                    partners[index] = partner;
+                    users[index] = user;
+                    next[index] = UNLINKED;
+                    states.set(index, state);
+                    live++;
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+
+        void link(int index, long user) {
+            int head = indexOf(user);
+            if (head < 0) {
+                head = put(user, 0, user, 0);
+                next[head] = END;
+                heads++;
+            }
+            next[index] = next[head];
+            next[head] = index;
+        }
+
+        void unlink(int index) {
+            if (next[index] == UNLINKED) {
+                return;
+            }
+            int head = indexOf(users[index]);
+            if (head >= 0) {
+                int previous = head;
+                for (int current = next[head]; current >= 0; previous = current, current = next[current]) {
+                    if (current == index) {
+                        next[previous] = next[current];
+                        break;
+                    }
+                }
+                if (next[head] == END) {
+                    removeHead(head);
+                }
+            }
+            next[index] = UNLINKED;
+        }
+
+        void removeHead(int head) {
+            next[head] = UNLINKED;
+            remove(head);
+            heads--;
+        }
+
+        void remove(int index) {
+            states.set(index, 0);
+            keys.set(index, TOMBSTONE);
+            live--;
+            tombstones++;
+        }
+
+        Table rehash(int capacity) {
+            long now = System.currentTimeMillis();
+            Table rehashed = new Table(capacity);
+            for (int i = 0; i < capacity(); i++) {
+                long state = states.get(i);
+                if (state != 0 && expiresAt(state) > now) {
+                    int index = rehashed.put(keys.get(i), partners[i], users[i], state);
+                    if (next[i] != UNLINKED) {
+                        rehashed.link(index, users[i]);
+                    }
+                }
+            }
+            return rehashed;
+        }
+
+        private static int spread(long key) {
+            return (int) (key ^ (key >>> 32));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.jwt.repository;
+
+import com.jwt.entity.Token;
+import com.jwt.utils.TokenDigest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Component
+@ConditionalOnProperty(name = "jwt.session-store.type", havingValue = "jpa", matchIfMissing = true)
+public class JpaSessionStore implements SessionStore {
+
+    private final TokenRepository tokenRepository;
+    private final TokenWriteBehindBuffer writeBehindBuffer;
+
+    public JpaSessionStore(TokenRepository tokenRepository, TokenWriteBehindBuffer writeBehindBuffer) {
+        this.tokenRepository = tokenRepository;
+        this.writeBehindBuffer = writeBehindBuffer;
+    }
+
+    @Override
+    public List<RevokedSession> save(Token token, int maxSessions) {
+        if (maxSessions > 0) {
+            flushPending(token.getUsername());
+            return revoked(tokenRepository.saveSession(token, maxSessions));
+        }
+        if (writeBehindBuffer.isEnabled()) {
+            writeBehindBuffer.enqueue(token);
+        } else {
+            tokenRepository.save(token);
+        }
+        return List.of();
+    }
+
+    @Override
+    public Optional<Token> findByAccessTokenHash(byte[] accessTokenHash) {
+        return writeBehindBuffer.findPendingByAccessHash(accessTokenHash)
+                .or(() -> tokenRepository.findByAccessTokenHash(accessTokenHash));
+    }
+
+    @Override
+    public Optional<Token> findActiveToken(String username, Instant now) {
+        return writeBehindBuffer.findPendingActiveToken(username, now)
+                .or(() -> tokenRepository.findFirstByUsernameAndIsValidTrueAndAccessExpiresAtAfterOrderByIdDesc(username, now));
+    }
+
+    @Override
+    public Set<ByteBuffer> findValidAccessTokenHashes(Collection<ByteBuffer> accessTokenHashes) {
+        Set<ByteBuffer> valid = new HashSet<>();
+        List<byte[]> stored = new ArrayList<>(accessTokenHashes.size());
+        for (ByteBuffer hash : accessTokenHashes) {
+            writeBehindBuffer.findPendingByAccessHash(hash.array())
+                    .ifPresentOrElse(token -> {
+                        if (token.isValid()) {
+                            valid.add(hash);
+                        }
+                    }, () -> stored.add(hash.array()));
+        }
+        if (!stored.isEmpty()) {
+            tokenRepository.findByAccessTokenHashInAndIsValidTrue(stored)
+                    .forEach(view -> valid.add(ByteBuffer.wrap(view.getAccessTokenHash())));
+        }
+        return valid;
+    }
+
+    @Override
+    public Optional<RevokedSession> invalidate(byte[] tokenHash) {
+        Optional<Token> pending = writeBehindBuffer.invalidatePending(tokenHash);
+        if (pending.isPresent()) {
+            return pending.flatMap(JpaSessionStore::revoked);
+        }
+        Optional<Token> token = tokenRepository.findByAccessTokenHash(tokenHash)
+                .or(() -> tokenRepository.findByRefreshTokenHash(tokenHash));
+        token.ifPresent(stored -> {
+            stored.setValid(false);
+            stored.setInvalidatedAt(Instant.now());
+            tokenRepository.save(stored);
+        });
+        return token.flatMap(JpaSessionStore::revoked);
+    }
+
+    @Override
+    public Optional<RevokedSession> rotate(byte[] refreshTokenHash, Token replacement) {
+        if (writeBehindBuffer.findPendingByRefreshHash(refreshTokenHash).isPresent()) {
+            writeBehindBuffer.flush();
+        }
+        return tokenRepository.rotate(refreshTokenHash, replacement)
+                .flatMap(view -> revoked(view.getAccessTokenHash(), view.getAccessExpiresAt()));
+    }
+
+    @Override
+    public List<RevokedSession> invalidateAll(String username) {
+        flushPending(username);
+        return revoked(tokenRepository.invalidateSessions(username));
+    }
+
+    @Override
+    public List<Token> findAll() {
+        return tokenRepository.findAll();
+    }
+
+    private void flushPending(String username) {
+        if (writeBehindBuffer.findPendingActiveToken(username, Instant.now()).isPresent()) {
+            writeBehindBuffer.flush();
+        }
+    }
+
+    private static List<RevokedSession> revoked(List<TokenHashView> views) {
+        return views.stream()
+                .flatMap(view -> revoked(view.getAccessTokenHash(), view.getAccessExpiresAt()).stream())
+                .toList();
+    }
+
+    private static Optional<RevokedSession> revoked(Token token) {
+        return revoked(token.getAccessTokenHash(), token.getAccessExpiresAt());
+    }
+
+    private static Optional<RevokedSession> revoked(byte[] accessTokenHash, Instant accessExpiresAt) {
+        if (accessTokenHash == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new RevokedSession(TokenDigest.fingerprint(accessTokenHash), accessExpiresAt));
+    }
+}
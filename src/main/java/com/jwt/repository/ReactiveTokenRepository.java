@@ -0,0 +1,144 @@
+package com.jwt.repository;
+
+import com.jwt.entity.Token;
+import com.jwt.utils.TokenDigest;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Row;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTokenRepository {
+
+    private static final String SESSION_COLUMNS = "id, access_token_hash, access_expires_at";
+
+    private static final String COLUMNS = SESSION_COLUMNS + ", username, access_token, refresh_token, "
+            + "refresh_token_hash, is_valid, refresh_expires_at, invalidated_at";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+
+    public ReactiveTokenRepository(ConnectionFactory connectionFactory) {
+        this.databaseClient = DatabaseClient.create(connectionFactory);
+        this.transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    public Mono<Void> save(Token token) {
+        return databaseClient.sql("insert into tokens (username, access_token, refresh_token, access_token_hash, "
+                        + "refresh_token_hash, is_valid, access_expires_at, refresh_expires_at) "
+                        + "values (:username, :accessToken, :refreshToken, :accessTokenHash, "
+                        + ":refreshTokenHash, :valid, :accessExpiresAt, :refreshExpiresAt)")
+                .bind("username", token.getUsername())
+                .bind("accessToken", token.getAccessToken())
+                .bind("refreshToken", token.getRefreshToken())
+                .bind("accessTokenHash", token.getAccessTokenHash())
+                .bind("refreshTokenHash", token.getRefreshTokenHash())
+                .bind("valid", token.isValid())
+                .bind("accessExpiresAt", token.getAccessExpiresAt())
+                .bind("refreshExpiresAt", token.getRefreshExpiresAt())
+                .then();
+    }
+
+    public Mono<Token> findByAccessTokenHash(byte[] accessTokenHash) {
+        return databaseClient.sql("select " + COLUMNS + " from tokens where access_token_hash = :hash")
+                .bind("hash", accessTokenHash)
+                .map((row, metadata) -> toToken(row))
+                .one();
+    }
+
+    public Mono<Token> findActiveToken(String username, Instant now) {
+        return databaseClient.sql("select " + COLUMNS + " from tokens "
+                        + "where username = :username and is_valid = true and access_expires_at > :now "
+                        + "order by id desc limit 1")
+                .bind("username", username)
+                .bind("now", now)
+                .map((row, metadata) -> toToken(row))
+                .one();
+    }
+
+    public Mono<RevokedSession> invalidate(byte[] tokenHash) {
+        return databaseClient.sql("select " + SESSION_COLUMNS + " from tokens "
+                        + "where access_token_hash = :hash or refresh_token_hash = :hash")
+                .bind("hash", tokenHash)
+                .map((row, metadata) -> toSession(row))
+                .one()
+                .flatMap(token -> databaseClient.sql("update tokens set is_valid = false, invalidated_at = :now "
+                                + "where id = :id")
+                        .bind("now", Instant.now())
+                        .bind("id", token.getId())
+                        .then()
+                        .then(Mono.justOrEmpty(revoked(token))));
+    }
+
+    public Mono<RevokedSession> rotate(byte[] refreshTokenHash, Token replacement) {
+        return databaseClient.sql("update tokens set is_valid = false, invalidated_at = :now "
+                        + "where refresh_token_hash = :hash and is_valid = true")
+                .bind("now", Instant.now())
+                .bind("hash", refreshTokenHash)
+                .fetch()
+                .rowsUpdated()
+                .filter(updated -> updated > 0)
+                .flatMap(updated -> save(replacement)
+                        .then(databaseClient.sql("select " + SESSION_COLUMNS + " from tokens "
+                                        + "where refresh_token_hash = :hash")
+                                .bind("hash", refreshTokenHash)
+                                .map((row, metadata) -> toSession(row))
+                                .one()))
+                .flatMap(token -> Mono.justOrEmpty(revoked(token)))
+                .as(transactionalOperator::transactional);
+    }
+
+    public Mono<List<RevokedSession>> invalidateAll(String username) {
+        Flux<Token> sessions = databaseClient.sql("select " + SESSION_COLUMNS + " from tokens "
+                        + "where username = :username and is_valid = true")
+                .bind("username", username)
+                .map((row, metadata) -> toSession(row))
+                .all();
+        return sessions.collectList()
+                .flatMap(tokens -> databaseClient.sql("update tokens set is_valid = false, invalidated_at = :now "
+                                + "where username = :username and is_valid = true")
+                        .bind("now", Instant.now())
+                        .bind("username", username)
+                        .then()
+                        .thenReturn(tokens.stream().flatMap(token -> revoked(token).stream()).toList()))
+                .as(transactionalOperator::transactional);
+    }
+
+    private static Optional<RevokedSession> revoked(Token token) {
+        if (token.getAccessTokenHash() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new RevokedSession(TokenDigest.fingerprint(token.getAccessTokenHash()),
+                token.getAccessExpiresAt()));
+    }
+
+    private static Token toToken(Row row) {
+        Token token = toSession(row);
+        token.setUsername(row.get("username", String.class));
+        token.setAccessToken(row.get("access_token", String.class));
+        token.setRefreshToken(row.get("refresh_token", String.class));
+        token.setRefreshTokenHash(row.get("refresh_token_hash", byte[].class));
+        token.setValid(Boolean.TRUE.equals(row.get("is_valid", Boolean.class)));
+        token.setRefreshExpiresAt(row.get("refresh_expires_at", Instant.class));
+        token.setInvalidatedAt(row.get("invalidated_at", Instant.class));
+        return token;
+    }
+
+    private static Token toSession(Row row) {
+        Token token = new Token();
+        token.setId(row.get("id", Long.class));
+        token.setAccessTokenHash(row.get("access_token_hash", byte[].class));
+        token.setAccessExpiresAt(row.get("access_expires_at", Instant.class));
+        return token;
+    }
+}
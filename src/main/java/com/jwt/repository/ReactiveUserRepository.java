@@ -0,0 +1,71 @@
+package com.jwt.repository;
+
+import com.jwt.entity.User;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Row;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserRepository {
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+
+    public ReactiveUserRepository(ConnectionFactory connectionFactory) {
+        this.databaseClient = DatabaseClient.create(connectionFactory);
+        this.transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    public Mono<User> findByUsername(String username) {
+        return databaseClient.sql("select id, username, password, role, enabled, failed_login_attempts "
+                        + "from users where username = :username")
+                .bind("username", username)
+                .map((row, metadata) -> toUser(row))
+                .one();
+    }
+
+    public Mono<Long> recordFailedLogins(String username, int attempts, int threshold) {
+        return databaseClient.sql("update users set "
+                        + "enabled = case when failed_login_attempts + :attempts > :threshold "
+                        + "then false else enabled end, "
+                        + "failed_login_attempts = case when failed_login_attempts >= :threshold then failed_login_attempts "
+                        + "when failed_login_attempts + :attempts > :threshold then :threshold "
+                        + "else failed_login_attempts + :attempts end "
+                        + "where username = :username")
+                .bind("attempts", attempts)
+                .bind("threshold", threshold)
+                .bind("username", username)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Boolean> recordFailedLoginsAndDetectLockout(String username, int attempts, int threshold) {
+        return databaseClient.sql("select id, username, password, role, enabled, failed_login_attempts "
+                        + "from users where username = :username for update")
+                .bind("username", username)
+                .map((row, metadata) -> toUser(row))
+                .one()
+                .flatMap(user -> recordFailedLogins(username, attempts, threshold)
+                        .thenReturn(user.isAccountNonLocked() && user.getFailedLoginAttempts() + attempts > threshold))
+                .as(transactionalOperator::transactional)
+                .defaultIfEmpty(false);
+    }
+
+    private static User toUser(Row row) {
+        User user = new User();
+        user.setId(row.get("id", Long.class));
+        user.setUsername(row.get("username", String.class));
+        user.setPassword(row.get("password", String.class));
+        user.setRole(row.get("role", String.class));
+        user.setAccountNonLocked(Boolean.TRUE.equals(row.get("enabled", Boolean.class)));
+        Integer failedLoginAttempts = row.get("failed_login_attempts", Integer.class);
+        user.setFailedLoginAttempts(failedLoginAttempts != null ? failedLoginAttempts : 0);
+        return user;
+    }
+}
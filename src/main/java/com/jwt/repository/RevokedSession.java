@@ -0,0 +1,12 @@
+package com.jwt.repository;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+@Value
+public class RevokedSession {
+
+    long accessTokenFingerprint;
+    Instant accessExpiresAt;
+}
@@ -0,0 +1,29 @@
+package com.jwt.repository;
+
+import com.jwt.entity.Token;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public interface SessionStore {
+
+    List<RevokedSession> save(Token token, int maxSessions);
+
+    Optional<Token> findByAccessTokenHash(byte[] accessTokenHash);
+
+    Optional<Token> findActiveToken(String username, Instant now);
+
+    Set<ByteBuffer> findValidAccessTokenHashes(Collection<ByteBuffer> accessTokenHashes);
+
+    Optional<RevokedSession> invalidate(byte[] tokenHash);
+
+    Optional<RevokedSession> rotate(byte[] refreshTokenHash, Token replacement);
+
+    List<RevokedSession> invalidateAll(String username);
+
+    List<Token> findAll();
+}
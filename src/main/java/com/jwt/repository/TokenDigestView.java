@@ -0,0 +1,8 @@
+package com.jwt.repository;
+
+public interface TokenDigestView {
+
+    byte[] getAccessTokenHash();
+
+    byte[] getRefreshTokenHash();
+}
@@ -0,0 +1,12 @@
+package com.jwt.repository;
+
+import java.time.Instant;
+
+public interface TokenHashView {
+
+    Long getId();
+
+    byte[] getAccessTokenHash();
+
+    Instant getAccessExpiresAt();
+}
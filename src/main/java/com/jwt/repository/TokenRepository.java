@@ -1,12 +1,97 @@
 package com.jwt.repository;
 
 import com.jwt.entity.Token;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface TokenRepository extends JpaRepository<Token, Long> {
-    Optional<Token> findByAccessToken(String accessToken);
+    Optional<Token> findByAccessTokenHash(byte[] accessTokenHash);
 
-    Optional<Token> findByRefreshToken(String accessToken);
+    Optional<Token> findByRefreshTokenHash(byte[] refreshTokenHash);
+
+    Optional<TokenHashView> findHashViewByRefreshTokenHash(byte[] refreshTokenHash);
+
+    List<Token> findByAccessTokenHashIsNullAndAccessTokenIsNotNull(Pageable pageable);
+
+    @Query("select t.accessTokenHash as accessTokenHash, t.refreshTokenHash as refreshTokenHash from Token t "
+            + "where t.accessTokenHash in :hashes or t.refreshTokenHash in :hashes")
+    List<TokenDigestView> findDigestsIn(@Param("hashes") Collection<byte[]> hashes);
+
+    Optional<Token> findFirstByUsernameAndIsValidTrueAndAccessExpiresAtAfterOrderByIdDesc(String username, Instant now);
+
+    List<TokenHashView> findByIsValidFalseAndAccessTokenHashIsNotNullAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<TokenHashView> findByInvalidatedAtAfterAndAccessTokenHashIsNotNull(Instant invalidatedAfter);
+
+    List<TokenHashView> findByAccessTokenHashInAndIsValidTrue(Collection<byte[]> accessTokenHashes);
+
+    List<TokenHashView> findByUsernameAndIsValidTrueOrderByIdDesc(String username);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Token t set t.isValid = false, t.invalidatedAt = :now "
+            + "where t.refreshTokenHash = :refreshTokenHash and t.isValid = true")
+    int invalidateValidRefreshToken(@Param("refreshTokenHash") byte[] refreshTokenHash, @Param("now") Instant now);
+
+    @Transactional
+    default Optional<TokenHashView> rotate(byte[] refreshTokenHash, Token replacement) {
+        if (invalidateValidRefreshToken(refreshTokenHash, Instant.now()) == 0) {
+            return Optional.empty();
+        }
+        save(replacement);
+        return findHashViewByRefreshTokenHash(refreshTokenHash);
+    }
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Token t set t.isValid = false, t.invalidatedAt = :now where t.id in :ids")
+    int invalidateByIdIn(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Token t set t.isValid = false, t.invalidatedAt = :now "
+            + "where t.username = :username and t.isValid = true")
+    int invalidateByUsername(@Param("username") String username, @Param("now") Instant now);
+
+    @Query(value = "select id from users where username = :username for update", nativeQuery = true)
+    List<Long> lockUser(@Param("username") String username);
+
+    @Transactional
+    default List<TokenHashView> saveSession(Token token, int maxSessions) {
+        lockUser(token.getUsername());
+        save(token);
+        List<TokenHashView> sessions = findByUsernameAndIsValidTrueOrderByIdDesc(token.getUsername());
+        if (sessions.size() <= maxSessions) {
+            return List.of();
+        }
+        List<TokenHashView> evicted = sessions.subList(maxSessions, sessions.size());
+        invalidateByIdIn(evicted.stream().map(TokenHashView::getId).toList(), Instant.now());
+        return evicted;
+    }
+
+    @Transactional
+    default List<TokenHashView> invalidateSessions(String username) {
+        List<TokenHashView> sessions = findByUsernameAndIsValidTrueOrderByIdDesc(username);
+        if (!sessions.isEmpty()) {
+            invalidateByUsername(username, Instant.now());
+        }
+        return sessions;
+    }
+
+    @Transactional
+    @Modifying
+    @Query(value = "delete from tokens where id in (select id from tokens "
+            + "where refresh_expires_at < :now "
+            + "or refresh_expires_at is null "
+            + "or (invalidated_at < :invalidatedBefore and access_expires_at < :now) "
+            + "limit :limit)", nativeQuery = true)
+    int deleteExpired(@Param("now") Instant now,
+                      @Param("invalidatedBefore") Instant invalidatedBefore,
+                      @Param("limit") int limit);
 }
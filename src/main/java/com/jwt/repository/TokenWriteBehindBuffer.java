@@ -0,0 +1,331 @@
+package com.jwt.repository;
+
+import com.jwt.entity.Token;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class TokenWriteBehindBuffer implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenWriteBehindBuffer.class);
+
+    private static final String INSERT_SQL = "insert into tokens "
+            + "(username, access_token, refresh_token, access_token_hash, refresh_token_hash, is_valid, "
+            + "access_expires_at, refresh_expires_at, invalidated_at) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int capacity;
+    private final int batchSize;
+    private final Duration offerTimeout;
+
+    private final BlockingQueue<Token> queue;
+    private final Map<ByteBuffer, Token> pendingByAccessHash = new ConcurrentHashMap<>();
+    private final Map<ByteBuffer, Token> pendingByRefreshHash = new ConcurrentHashMap<>();
+    private final Map<String, Set<Token>> pendingByUsername = new ConcurrentHashMap<>();
+    private final List<Token> retry = new ArrayList<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService flusher;
+
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushedRows = new AtomicLong();
+    private final AtomicLong flushNanos = new AtomicLong();
+    private final AtomicLong synchronousWrites = new AtomicLong();
+    private final AtomicLong deadLetters = new AtomicLong();
+
+    public TokenWriteBehindBuffer(JdbcTemplate jdbcTemplate,
+                                  @Value("${jwt.token-store.write-behind.enabled:false}") boolean enabled,
+                                  @Value("${jwt.token-store.write-behind.capacity:10000}") int capacity,
+                                  @Value("${jwt.token-store.write-behind.batch-size:500}") int batchSize,
+                                  @Value("${jwt.token-store.write-behind.flush-interval:PT0.005S}") Duration flushInterval,
+                                  @Value("${jwt.token-store.write-behind.offer-timeout:PT0.05S}") Duration offerTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.offerTimeout = offerTimeout;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        if (enabled) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "token-write-behind");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalNanos = flushInterval.toNanos();
+            flusher.scheduleWithFixedDelay(this::flushQuietly, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void enqueue(Token token) {
+        pendingByAccessHash.put(ByteBuffer.wrap(token.getAccessTokenHash()), token);
+        pendingByRefreshHash.put(ByteBuffer.wrap(token.getRefreshTokenHash()), token);
+        pendingByUsername.compute(token.getUsername(), (username, tokens) -> {
+            Set<Token> pending = tokens != null ? tokens : ConcurrentHashMap.newKeySet();
+            pending.add(token);
+            return pending;
+        });
+        boolean accepted;
+        try {
+            accepted = queue.offer(token, offerTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            synchronousWrites.incrementAndGet();
+            flushLock.lock();
+            try {
+                insert(List.of(token));
+            } finally {
+                forget(token);
+                flushLock.unlock();
+            }
+            return;
+        }
+        if (queue.size() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushScheduled.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    public Optional<Token> findPendingByAccessHash(byte[] accessTokenHash) {
+        return Optional.ofNullable(pendingByAccessHash.get(ByteBuffer.wrap(accessTokenHash)));
+    }
+
+    public Optional<Token> findPendingByRefreshHash(byte[] refreshTokenHash) {
+        return Optional.ofNullable(pendingByRefreshHash.get(ByteBuffer.wrap(refreshTokenHash)));
+    }
+
+    public Optional<Token> findPendingActiveToken(String username, Instant now) {
+        Set<Token> pending = pendingByUsername.get(username);
+        if (pending == null) {
+            return Optional.empty();
+        }
+        return pending.stream()
+                .filter(Token::isValid)
+                .filter(token -> token.getAccessExpiresAt() != null && token.getAccessExpiresAt().isAfter(now))
+                .findFirst();
+    }
+
+    public Optional<Token> invalidatePending(byte[] hash) {
+        if (pendingByAccessHash.isEmpty()) {
+            return Optional.empty();
+        }
+        flushLock.lock();
+        try {
+            ByteBuffer key = ByteBuffer.wrap(hash);
+            Token token = pendingByAccessHash.get(key);
+            if (token == null) {
+                token = pendingByRefreshHash.get(key);
+            }
+            if (token != null) {
+                token.setValid(false);
+                token.setInvalidatedAt(Instant.now());
+            }
+            return Optional.ofNullable(token);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Token> batch = new ArrayList<>(retry);
+            retry.clear();
+            queue.drainTo(batch);
+            if (batch.isEmpty()) {
+                return;
+            }
+            long start = System.nanoTime();
+            int from = 0;
+            try {
+                while (from < batch.size()) {
+                    List<Token> chunk = batch.subList(from, Math.min(batch.size(), from + batchSize));
+                    flushedRows.addAndGet(write(chunk));
+                    chunk.forEach(this::forget);
+                    from += chunk.size();
+                }
+            } catch (RuntimeException e) {
+                requeue(batch.subList(from, batch.size()));
+                throw e;
+            } finally {
+                flushNanos.addAndGet(System.nanoTime() - start);
+                flushCount.incrementAndGet();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int write(List<Token> chunk) {
+        try {
+            insert(chunk);
+            return chunk.size();
+        } catch (DataIntegrityViolationException e) {
+            int written = 0;
+            for (Token token : chunk) {
+                try {
+                    insert(List.of(token));
+                    written++;
+                } catch (DuplicateKeyException duplicate) {
+                    logger.warn("Pending token for user {} is already stored, skipping it", token.getUsername());
+                } catch (DataIntegrityViolationException invalid) {
+                    deadLetter(token, invalid.getMessage());
+                }
+            }
+            return written;
+        }
+    }
+
+    private void requeue(List<Token> tokens) {
+        retry.addAll(tokens);
+        int overflow = retry.size() - capacity;
+        if (overflow > 0) {
+            List<Token> dropped = retry.subList(0, overflow);
+            dropped.forEach(token -> deadLetter(token, "retry backlog is full"));
+            dropped.clear();
+        }
+    }
+
+    private void deadLetter(Token token, String reason) {
+        deadLetters.incrementAndGet();
+        forget(token);
+        logger.error("Dropping pending token for user {} that cannot be stored: {}", token.getUsername(), reason);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Failed to flush pending tokens, will retry: {}", e.getMessage());
+        }
+    }
+
+    private void insert(List<Token> tokens) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, tokens, tokens.size(), (ps, token) -> {
+            ps.setString(1, token.getUsername());
+            ps.setString(2, token.getAccessToken());
+            ps.setString(3, token.getRefreshToken());
+            ps.setBytes(4, token.getAccessTokenHash());
+            ps.setBytes(5, token.getRefreshTokenHash());
+            ps.setBoolean(6, token.isValid());
+            ps.setObject(7, toOffsetDateTime(token.getAccessExpiresAt()));
+            ps.setObject(8, toOffsetDateTime(token.getRefreshExpiresAt()));
+            ps.setObject(9, toOffsetDateTime(token.getInvalidatedAt()));
+        });
+    }
+
+    private static OffsetDateTime toOffsetDateTime(Instant instant) {
+        return instant != null ? instant.atOffset(ZoneOffset.UTC) : null;
+    }
+
+    private void forget(Token token) {
+        pendingByAccessHash.remove(ByteBuffer.wrap(token.getAccessTokenHash()));
+        pendingByRefreshHash.remove(ByteBuffer.wrap(token.getRefreshTokenHash()));
+        pendingByUsername.computeIfPresent(token.getUsername(), (username, tokens) -> {
+            tokens.remove(token);
+            return tokens.isEmpty() ? null : tokens;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("jwt.token-store.write-behind.queue.depth", queue, BlockingQueue::size)
+                .register(registry);
+        FunctionTimer.builder("jwt.token-store.write-behind.flush", this,
+                        TokenWriteBehindBuffer::getFlushCount, TokenWriteBehindBuffer::getFlushNanos, TimeUnit.NANOSECONDS)
+                .register(registry);
+        FunctionCounter.builder("jwt.token-store.write-behind.rows", this, TokenWriteBehindBuffer::getFlushedRows)
+                .tag("outcome", "flushed")
+                .register(registry);
+        FunctionCounter.builder("jwt.token-store.write-behind.rows", this, TokenWriteBehindBuffer::getSynchronousWrites)
+                .tag("outcome", "synchronous")
+                .register(registry);
+        FunctionCounter.builder("jwt.token-store.write-behind.rows", this, TokenWriteBehindBuffer::getDeadLetters)
+                .tag("outcome", "dead-letter")
+                .register(registry);
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    public long getFlushedRows() {
+        return flushedRows.get();
+    }
+
+    public long getFlushNanos() {
+        return flushNanos.get();
+    }
+
+    public long getSynchronousWrites() {
+        return synchronousWrites.get();
+    }
+
+    public long getDeadLetters() {
+        return deadLetters.get();
+    }
+}
@@ -1,8 +1,41 @@
 package com.jwt.repository;
 
 import com.jwt.entity.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface UserRepository extends JpaRepository<User, Integer> {
     User findByUsername(String username);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.username = :username")
+    User lockByUsername(@Param("username") String username);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update User u set "
+            + "u.isAccountNonLocked = case when u.failedLoginAttempts + :attempts > :threshold "
+            + "then false else u.isAccountNonLocked end, "
+            + "u.failedLoginAttempts = case when u.failedLoginAttempts >= :threshold then u.failedLoginAttempts "
+            + "when u.failedLoginAttempts + :attempts > :threshold then :threshold "
+            + "else u.failedLoginAttempts + :attempts end "
+            + "where u.username = :username")
+    int recordFailedLogins(@Param("username") String username,
+                           @Param("attempts") int attempts,
+                           @Param("threshold") int threshold);
+
+    @Transactional
+    default boolean recordFailedLoginsAndDetectLockout(String username, int attempts, int threshold) {
+        User user = lockByUsername(username);
+        if (user == null) {
+            return false;
+        }
+        recordFailedLogins(username, attempts, threshold);
+        return user.isAccountNonLocked() && user.getFailedLoginAttempts() + attempts > threshold;
+    }
 }
@@ -7,8 +7,10 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -17,8 +19,10 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     @Autowired
@@ -27,6 +31,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Value("${jwt.authentication.load-user:false}")
+    private boolean loadUser;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
             throws ServletException, IOException {
@@ -36,25 +43,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String token = authorizationHeader.substring(7);
 
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(jwtService.secretKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            if (claims.getExpiration() != null && claims.getExpiration().before(new java.util.Date())) {
-                response.setStatus(HttpStatus.UNAUTHORIZED.value());
-                response.getWriter().write("Token has expired");
-                return;
-            }
+                VerifiedToken verifiedToken = jwtService.verify(token);
+                if (JwtService.REFRESH_TOKEN_TYPE.equals(verifiedToken.getType())) {
+                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                    response.getWriter().write("Invalid token");
+                    return;
+                }
+                if (jwtService.isRevoked(token)) {
+                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                    response.getWriter().write("Token has been revoked");
+                    return;
+                }
+                request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, verifiedToken);
 
-                String username = jwtService.extractUserName(token);
+                String username = verifiedToken.getSubject();
 
                 if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                    UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
+                    UsernamePasswordAuthenticationToken auth;
+                    if (!loadUser && verifiedToken.getAuthorities() != null) {
+                        List<SimpleGrantedAuthority> authorities = verifiedToken.getAuthorities().stream()
+                                .map(SimpleGrantedAuthority::new)
+                                .toList();
+                        auth = new UsernamePasswordAuthenticationToken(
+                                new JwtPrincipal(verifiedToken.getUserId(), username), null, authorities);
+                    } else {
+                        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                        auth = new UsernamePasswordAuthenticationToken(
+                                userDetails, null, userDetails.getAuthorities());
+                    }
                     auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                     SecurityContextHolder.getContext().setAuthentication(auth);
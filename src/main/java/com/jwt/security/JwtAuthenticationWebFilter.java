@@ -0,0 +1,97 @@
+package com.jwt.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import lombok.NonNull;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private final JwtService jwtService;
+    private final ReactiveUserDetailsService userDetailsService;
+    private final boolean loadUser;
+
+    public JwtAuthenticationWebFilter(JwtService jwtService, ReactiveUserDetailsService userDetailsService,
+                                      boolean loadUser) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.loadUser = loadUser;
+    }
+
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        String authorizationHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+        String token = authorizationHeader.substring(7);
+
+        VerifiedToken verifiedToken;
+        try {
+            verifiedToken = jwtService.verify(token);
+            if (JwtService.REFRESH_TOKEN_TYPE.equals(verifiedToken.getType())) {
+                return unauthorized(exchange, "Invalid token");
+            }
+            if (jwtService.isRevoked(token)) {
+                return unauthorized(exchange, "Token has been revoked");
+            }
+        } catch (ExpiredJwtException e) {
+            return unauthorized(exchange, "Token has expired");
+        } catch (SignatureException e) {
+            return unauthorized(exchange, "Invalid token signature");
+        } catch (Exception e) {
+            return unauthorized(exchange, "Invalid token");
+        }
+        exchange.getAttributes().put(VerifiedToken.REQUEST_ATTRIBUTE, verifiedToken);
+
+        if (verifiedToken.getSubject() == null) {
+            return chain.filter(exchange);
+        }
+        return authentication(verifiedToken)
+                .map(Optional::of)
+                .onErrorResume(e -> Mono.just(Optional.empty()))
+                .flatMap(auth -> auth.isPresent()
+                        ? chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth.get()))
+                        : unauthorized(exchange, "Invalid token"));
+    }
+
+    private Mono<Authentication> authentication(VerifiedToken verifiedToken) {
+        String username = verifiedToken.getSubject();
+        if (!loadUser && verifiedToken.getAuthorities() != null) {
+            List<SimpleGrantedAuthority> authorities = verifiedToken.getAuthorities().stream()
+                    .map(SimpleGrantedAuthority::new)
+                    .toList();
+            return Mono.just(new UsernamePasswordAuthenticationToken(
+                    new JwtPrincipal(verifiedToken.getUserId(), username), null, authorities));
+        }
+        return userDetailsService.findByUsername(username)
+                .switchIfEmpty(Mono.error(() -> new UsernameNotFoundException("User not found with username: " + username)))
+                .map(userDetails -> new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities()));
+    }
+
+    private static Mono<Void> unauthorized(ServerWebExchange exchange, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        DataBuffer body = response.bufferFactory().wrap(message.getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(body));
+    }
+}
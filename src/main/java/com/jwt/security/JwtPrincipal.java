@@ -0,0 +1,17 @@
+package com.jwt.security;
+
+import lombok.Value;
+
+import java.security.Principal;
+
+@Value
+public class JwtPrincipal implements Principal {
+
+    Long id;
+    String username;
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -2,108 +2,247 @@ package com.jwt.security;
 
 import com.jwt.utils.TokenLifeTime;
 import com.jwt.entity.Token;
-import com.jwt.repository.TokenRepository;
-import com.jwt.utils.MyKeyGenerator;
+import com.jwt.entity.User;
+import com.jwt.repository.RevokedSession;
+import com.jwt.repository.SessionStore;
+import com.jwt.utils.TokenDigest;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import javax.crypto.spec.SecretKeySpec;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
-import java.util.function.Function;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtService {
 
-    private final TokenRepository tokenRepository;
+    private final SessionStore sessionStore;
 
-    protected final SecretKey secretKey;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    private final RevocationList revocationList;
+
+    private final SigningKeyRing signingKeyRing;
+
+    private final JwtParser jwtParser;
+
+    private final Timer generateAccessTimer;
+
+    private final Timer generateRefreshTimer;
+
+    private final Timer parseSuccessTimer;
+
+    private final Timer parseFailureTimer;
+
+    private final Timer invalidateTimer;
+
+    @Value("${jwt.sessions.max-per-user:0}")
+    private int maxSessionsPerUser;
 
     private static final long EXPIRATION_TIME = TokenLifeTime.ONE_DAY.getDays();
 
-    public JwtService(TokenRepository tokenRepository) {
-        this.tokenRepository = tokenRepository;
-        String secretString = MyKeyGenerator.generateSecretString();
-        byte[] keyBytes = Decoders.BASE64.decode(secretString);
-        this.secretKey = new SecretKeySpec(keyBytes, "HmacSHA256");
+    private static final long REFRESH_EXPIRATION_TIME = EXPIRATION_TIME * 30;
+
+    public static final String AUTHORITIES_CLAIM = "authorities";
+
+    public static final String USER_ID_CLAIM = "uid";
+
+    public static final String TOKEN_TYPE_CLAIM = "token_type";
+
+    public static final String ACCESS_TOKEN_TYPE = "access";
+
+    public static final String REFRESH_TOKEN_TYPE = "refresh";
+
+    public JwtService(SessionStore sessionStore, VerifiedTokenCache verifiedTokenCache,
+                      RevocationList revocationList, SigningKeyRing signingKeyRing, MeterRegistry meterRegistry) {
+        this.sessionStore = sessionStore;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.revocationList = revocationList;
+        this.signingKeyRing = signingKeyRing;
+        this.jwtParser = Jwts.parser()
+                .keyLocator(signingKeyRing)
+                .build();
+        this.generateAccessTimer = Timer.builder("jwt.tokens.generate")
+                .tag("type", ACCESS_TOKEN_TYPE)
+                .register(meterRegistry);
+        this.generateRefreshTimer = Timer.builder("jwt.tokens.generate")
+                .tag("type", REFRESH_TOKEN_TYPE)
+                .register(meterRegistry);
+        this.parseSuccessTimer = Timer.builder("jwt.tokens.parse")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.parseFailureTimer = Timer.builder("jwt.tokens.parse")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        this.invalidateTimer = Timer.builder("jwt.tokens.invalidate")
+                .register(meterRegistry);
     }
 
     public String generateAccessToken(String username) {
+        return generateAccessTimer.record(() -> signingKeyRing.sign(accessTokenBuilder(username)));
+    }
+
+    public String generateAccessToken(UserDetails userDetails) {
+        List<String> authorities = userDetails.getAuthorities() == null ? List.of() : userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        JwtBuilder builder = accessTokenBuilder(userDetails.getUsername())
+                .claim(AUTHORITIES_CLAIM, authorities);
+        if (userDetails instanceof User user && user.getId() != null) {
+            builder.claim(USER_ID_CLAIM, user.getId());
+        }
+        return generateAccessTimer.record(() -> signingKeyRing.sign(builder));
+    }
+
+    private JwtBuilder accessTokenBuilder(String username) {
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
+                .claim(TOKEN_TYPE_CLAIM, ACCESS_TOKEN_TYPE)
                 .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(secretKey)
-                .compact();
+                .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME));
     }
 
     public String generateRefreshToken(String username) {
-        return Jwts.builder()
+        return generateRefreshTimer.record(() -> signingKeyRing.sign(Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
+                .claim(TOKEN_TYPE_CLAIM, REFRESH_TOKEN_TYPE)
                 .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME * 30))
-                .signWith(secretKey)
-                .compact();
+                .expiration(new Date(System.currentTimeMillis() + REFRESH_EXPIRATION_TIME))));
     }
 
     public String extractUserName(String token) {
-        return extractClaims(token, Claims::getSubject);
+        return verify(token).getSubject();
     }
 
-    private <T> T extractClaims(String token, Function<Claims, T> claimsTFunction) {
-        final Claims claims = extractAllClaims(token);
-        return claimsTFunction.apply(claims);
+    public VerifiedToken verify(String token) {
+        return verifiedTokenCache.get(token, this::parse);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    private VerifiedToken parse(String token) {
+        long start = System.nanoTime();
+        Claims claims;
+        try {
+            claims = jwtParser.parseSignedClaims(token).getPayload();
+        } catch (RuntimeException e) {
+            parseFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        parseSuccessTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return new VerifiedToken(
+                claims.getId(),
+                claims.getSubject(),
+                toInstant(claims.getIssuedAt()),
+                toInstant(claims.getExpiration()),
+                claims.get(TOKEN_TYPE_CLAIM, String.class),
+                extractAuthorities(claims),
+                claims.get(USER_ID_CLAIM, Long.class));
     }
 
-    public void invalidateToken(String accessToken) {
-        Optional<Token> tokenOpt = tokenRepository.findByAccessToken(accessToken);
-        if (tokenOpt.isPresent()) {
-            Token token = tokenOpt.get();
-            token.setValid(false);
-            tokenRepository.save(token);
-        } else {
-            Optional<Token> refreshTokenOpt = tokenRepository.findByRefreshToken(accessToken);
-            if (refreshTokenOpt.isPresent()) {
-                Token refreshToken = refreshTokenOpt.get();
-                refreshToken.setValid(false);
-                tokenRepository.save(refreshToken);
-            }
+    private static List<String> extractAuthorities(Claims claims) {
+        Object authorities = claims.get(AUTHORITIES_CLAIM);
+        if (!(authorities instanceof Collection<?> collection)) {
+            return null;
         }
+        return collection.stream()
+                .map(String::valueOf)
+                .toList();
+    }
+
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+
+    public void invalidateToken(String accessToken) {
+        invalidateTimer.record(() -> invalidate(accessToken));
+    }
+
+    private void invalidate(String accessToken) {
+        sessionStore.invalidate(TokenDigest.sha256(accessToken)).ifPresent(this::revoke);
+        verifiedTokenCache.evict(accessToken);
+    }
+
+    public boolean isRevoked(String accessToken) {
+        return revocationList.isRevoked(TokenDigest.sha256(accessToken));
     }
 
     public void saveToken(String username, String accessToken, String refreshToken) {
+        sessionStore.save(newToken(username, accessToken, refreshToken), maxSessionsPerUser).forEach(this::revoke);
+    }
+
+    public Optional<Token> rotateRefreshToken(String refreshToken, UserDetails userDetails) {
+        Token replacement = newSession(userDetails);
+        Optional<RevokedSession> rotated = sessionStore.rotate(TokenDigest.sha256(refreshToken), replacement);
+        if (rotated.isEmpty()) {
+            return Optional.empty();
+        }
+        revoke(refreshToken, rotated.get());
+        return Optional.of(replacement);
+    }
+
+    public Token newSession(UserDetails userDetails) {
+        String username = userDetails.getUsername();
+        return newToken(username, generateAccessToken(userDetails), generateRefreshToken(username));
+    }
+
+    public int invalidateAllTokens(String username) {
+        List<RevokedSession> sessions = sessionStore.invalidateAll(username);
+        sessions.forEach(this::revoke);
+        return sessions.size();
+    }
+
+    public void revoke(String token, RevokedSession session) {
+        revoke(session);
+        verifiedTokenCache.evict(token);
+    }
+
+    public void revoke(RevokedSession session) {
+        Instant expiresAt = session.getAccessExpiresAt() != null
+                ? session.getAccessExpiresAt()
+                : Instant.now().plusMillis(EXPIRATION_TIME);
+        revocationList.revoke(session.getAccessTokenFingerprint(), expiresAt);
+    }
+
+    private static Token newToken(String username, String accessToken, String refreshToken) {
         Token token = new Token();
         token.setUsername(username);
         token.setAccessToken(accessToken);
-        token.setValid(true);
+        token.setAccessTokenHash(TokenDigest.sha256(accessToken));
         token.setRefreshToken(refreshToken);
+        token.setRefreshTokenHash(TokenDigest.sha256(refreshToken));
         token.setValid(true);
-        tokenRepository.save(token);
+        Instant now = Instant.now();
+        token.setAccessExpiresAt(now.plusMillis(EXPIRATION_TIME));
+        token.setRefreshExpiresAt(now.plusMillis(REFRESH_EXPIRATION_TIME));
+        return token;
     }
 
     public Token getAccessToken(String token) {
-        Token tokenObj;
         if (token.startsWith("Bearer ")) {
-            tokenObj = tokenRepository.findByAccessToken(token.substring(7)).get();
-        } else {
-            tokenObj = tokenRepository.findByAccessToken(token).get();
+            token = token.substring(7);
         }
-        return tokenObj;
+        byte[] digest = TokenDigest.sha256(token);
+        return sessionStore.findByAccessTokenHash(digest).get();
+    }
+
+    public Optional<Token> getActiveToken(String username) {
+        return sessionStore.findActiveToken(username, Instant.now());
     }
 
     public List<Token> getTokens() {
-        return tokenRepository.findAll();
+        return sessionStore.findAll();
     }
 }
\ No newline at end of file
@@ -0,0 +1,210 @@
+package com.jwt.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN_PATH = "/api/auth/login";
+
+    private final boolean enabled;
+    private final int maxBodyBytes;
+    private final ObjectMapper objectMapper;
+    private final RateLimiter ipLimiter;
+    private final RateLimiter usernameLimiter;
+    private final Counter throttledByIp;
+    private final Counter throttledByUsername;
+
+    public LoginThrottleFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                               @Value("${jwt.login-throttle.enabled:false}") boolean enabled,
+                               @Value("${jwt.login-throttle.ip.limit:20}") int ipLimit,
+                               @Value("${jwt.login-throttle.ip.period:PT1M}") Duration ipPeriod,
+                               @Value("${jwt.login-throttle.username.limit:5}") int usernameLimit,
+                               @Value("${jwt.login-throttle.username.period:PT1M}") Duration usernamePeriod,
+                               @Value("${jwt.login-throttle.maximum-keys:100000}") long maximumKeys,
+                               @Value("${jwt.login-throttle.max-body-size:4KB}") DataSize maxBodySize) {
+        this.enabled = enabled;
+        this.maxBodyBytes = (int) Math.min(maxBodySize.toBytes(), Integer.MAX_VALUE - 1);
+        this.objectMapper = objectMapper;
+        this.ipLimiter = new RateLimiter(ipLimit, ipPeriod, maximumKeys);
+        this.usernameLimiter = new RateLimiter(usernameLimit, usernamePeriod, maximumKeys);
+        this.throttledByIp = meterRegistry.counter("jwt.logins.throttled", "key", "ip");
+        this.throttledByUsername = meterRegistry.counter("jwt.logins.throttled", "key", "username");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod()) || !LOGIN_PATH.equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        long retryAfter = ipLimiter.acquire(request.getRemoteAddr());
+        if (retryAfter > 0) {
+            throttledByIp.increment();
+            reject(response, retryAfter);
+            return;
+        }
+
+        if (request.getContentLengthLong() > maxBodyBytes) {
+            rejectTooLarge(response);
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body.length > maxBodyBytes) {
+            rejectTooLarge(response);
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request, body);
+        String username = username(body);
+        if (username != null) {
+            retryAfter = usernameLimiter.acquire(username);
+            if (retryAfter > 0) {
+                throttledByUsername.increment();
+                reject(response, retryAfter);
+                return;
+            }
+        }
+        filterChain.doFilter(cachedRequest, response);
+    }
+
+    private String username(byte[] body) {
+        try {
+            JsonNode username = objectMapper.readTree(body).path("username");
+            return username.isTextual() ? username.asText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void reject(HttpServletResponse response, long retryAfterNanos) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999))));
+        response.getWriter().write("Too many login attempts, please retry later");
+    }
+
+    private static void rejectTooLarge(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+        response.getWriter().write("Login request body is too large");
+    }
+
+    private static final class RateLimiter {
+
+        private final long emissionInterval;
+        private final long tolerance;
+        private final Cache<String, AtomicLong> buckets;
+
+        RateLimiter(int limit, Duration period, long maximumKeys) {
+            this.emissionInterval = period.toNanos() / limit;
+            this.tolerance = emissionInterval * (limit - 1);
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maximumKeys)
+                    .expireAfterAccess(Duration.ofNanos(emissionInterval * limit))
+                    .build();
+        }
+
+        long acquire(String key) {
+            AtomicLong bucket = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+            long now = System.nanoTime();
+            while (true) {
+                long tat = bucket.get();
+                long earliest = Math.max(tat, now);
+                long wait = earliest - now - tolerance;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (bucket.compareAndSet(tat, earliest + emissionInterval)) {
+                    return 0;
+                }
+            }
+        }
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.jwt.security;
+
+import com.jwt.repository.ReactiveUserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebSecurityConfig {
+
+    private final ReactiveUserRepository userRepository;
+    private final JwtService jwtService;
+    private final LoginExecutor loginExecutor;
+    private final MeterRegistry meterRegistry;
+    private final boolean loadUser;
+
+    public ReactiveWebSecurityConfig(ReactiveUserRepository userRepository, JwtService jwtService,
+                                     LoginExecutor loginExecutor, MeterRegistry meterRegistry,
+                                     @Value("${jwt.authentication.load-user:false}") boolean loadUser) {
+        this.userRepository = userRepository;
+        this.jwtService = jwtService;
+        this.loginExecutor = loginExecutor;
+        this.meterRegistry = meterRegistry;
+        this.loadUser = loadUser;
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+                .cors(ServerHttpSecurity.CorsSpec::disable)
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange((authorize) -> authorize
+                        .anyExchange().permitAll()
+                )
+                .exceptionHandling(exceptions ->
+                        exceptions.authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.FORBIDDEN)))
+                .addFilterAt(new JwtAuthenticationWebFilter(jwtService, userDetailsService(), loadUser),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    @Bean
+    public ReactiveUserDetailsService userDetailsService() {
+        return username -> userRepository.findByUsername(username).cast(UserDetails.class);
+    }
+
+    @Bean
+    public ReactiveAuthenticationManager authenticationManager() {
+        UserDetailsRepositoryReactiveAuthenticationManager authenticationManager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService());
+        authenticationManager.setPasswordEncoder(passwordEncoder());
+        authenticationManager.setScheduler(Schedulers.fromExecutor(loginExecutor.getExecutor()));
+        return authenticationManager;
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
+    }
+}
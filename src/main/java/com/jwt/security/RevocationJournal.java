@@ -0,0 +1,188 @@
+package com.jwt.security;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+@Component
+public class RevocationJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationJournal.class);
+
+    private static final long MAGIC = 0x4A57545256434A31L;
+
+    private static final int END_OFFSET = Long.BYTES;
+
+    private static final int RECORD_BYTES = 2 * Long.BYTES;
+
+    private static final long EXPIRY_MASK = (1L << 48) - 1;
+
+    private final boolean enabled;
+    private final Path path;
+    private final int capacity;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int position = RECORD_BYTES;
+    private boolean full;
+
+    public RevocationJournal(@Value("${jwt.revocation.journal.enabled:false}") boolean enabled,
+                             @Value("${jwt.revocation.journal.path:data/revocations.journal}") String path,
+                             @Value("${jwt.revocation.journal.max-size:16MB}") DataSize maxSize) {
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        long bytes = Math.min(maxSize.toBytes(), Integer.MAX_VALUE);
+        this.capacity = (int) (bytes - bytes % RECORD_BYTES);
+        if (enabled) {
+            open();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized int replay(Listener listener) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        int replayed = 0;
+        for (int offset = RECORD_BYTES; offset < position; offset += RECORD_BYTES) {
+            long expiresAt = buffer.getLong(offset + Long.BYTES) & EXPIRY_MASK;
+            if (expiresAt > now && isComplete(offset)) {
+                listener.revoked(buffer.getLong(offset), expiresAt);
+                replayed++;
+            }
+        }
+        return replayed;
+    }
+
+    public synchronized void append(long fingerprint, long expiresAt) {
+        if (!enabled) {
+            return;
+        }
+        if (position + RECORD_BYTES > capacity) {
+            compact();
+            if (position + RECORD_BYTES > capacity) {
+                if (!full) {
+                    logger.warn("Revocation journal {} is full, new revocations are kept in memory only", path);
+                    full = true;
+                }
+                return;
+            }
+        }
+        buffer.putLong(position, fingerprint);
+        buffer.putLong(position + Long.BYTES, check(fingerprint, expiresAt) << 48 | expiresAt & EXPIRY_MASK);
+        position += RECORD_BYTES;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.journal.compact-interval:PT10M}")
+    public synchronized void compact() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        buffer.putLong(END_OFFSET, position);
+        int compacted = RECORD_BYTES;
+        for (int offset = RECORD_BYTES; offset < position; offset += RECORD_BYTES) {
+            long expiry = buffer.getLong(offset + Long.BYTES);
+            if ((expiry & EXPIRY_MASK) > now && isComplete(offset)) {
+                if (compacted != offset) {
+                    buffer.putLong(compacted, buffer.getLong(offset));
+                    buffer.putLong(compacted + Long.BYTES, expiry);
+                }
+                compacted += RECORD_BYTES;
+            }
+        }
+        buffer.putLong(END_OFFSET, compacted);
+        for (int offset = compacted; offset < position; offset += RECORD_BYTES) {
+            buffer.putLong(offset + Long.BYTES, 0);
+            buffer.putLong(offset, 0);
+        }
+        if (compacted < position) {
+            logger.debug("Compacted revocation journal from {} to {} records",
+                    position / RECORD_BYTES - 1, compacted / RECORD_BYTES - 1);
+            full = false;
+        }
+        position = compacted;
+        buffer.force();
+    }
+
+    public synchronized int size() {
+        return position / RECORD_BYTES - 1;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (!enabled || channel == null) {
+            return;
+        }
+        try {
+            buffer.putLong(END_OFFSET, position);
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            logger.error("Failed to close revocation journal {}: {}", path, e.getMessage());
+        }
+        channel = null;
+    }
+
+    private void open() {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open revocation journal " + path, e);
+        }
+        long magic = buffer.getLong(0);
+        if (magic == 0) {
+            buffer.putLong(0, MAGIC);
+        } else if (magic != MAGIC) {
+            throw new IllegalStateException(path + " is not a revocation journal");
+        }
+        long end = buffer.getLong(END_OFFSET);
+        if (end > position && end <= capacity && end % RECORD_BYTES == 0) {
+            position = (int) end;
+        }
+        while (position + RECORD_BYTES <= capacity && isComplete(position)) {
+            position += RECORD_BYTES;
+        }
+        while (position > RECORD_BYTES && !isComplete(position - RECORD_BYTES)) {
+            position -= RECORD_BYTES;
+        }
+        logger.info("Opened revocation journal {} with {} records", path, size());
+    }
+
+    private boolean isComplete(int offset) {
+        long expiry = buffer.getLong(offset + Long.BYTES);
+        return expiry >>> 48 == check(buffer.getLong(offset), expiry & EXPIRY_MASK);
+    }
+
+    private static long check(long fingerprint, long expiresAt) {
+        long hash = fingerprint ^ expiresAt * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        return hash >>> 48 | 1;
+    }
+
+    @FunctionalInterface
+    public interface Listener {
+        void revoked(long fingerprint, long expiresAt);
+    }
+}
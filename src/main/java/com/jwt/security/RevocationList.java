@@ -0,0 +1,133 @@
+package com.jwt.security;
+
+import com.jwt.repository.TokenHashView;
+import com.jwt.repository.TokenRepository;
+import com.jwt.utils.BloomFilter;
+import com.jwt.utils.TokenDigest;
+import com.jwt.utils.TokenLifeTime;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class RevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationList.class);
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(30);
+
+    private final TokenRepository tokenRepository;
+    private final RevocationJournal journal;
+    private final long expectedRevocations;
+    private final int batchSize;
+
+    private final Map<Long, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter;
+    private volatile Instant lastSync = Instant.now();
+
+    public RevocationList(TokenRepository tokenRepository, RevocationJournal journal,
+                          @Value("${jwt.revocation.expected-revocations:100000}") long expectedRevocations,
+                          @Value("${jwt.revocation.rebuild-batch-size:1000}") int batchSize) {
+        this.tokenRepository = tokenRepository;
+        this.journal = journal;
+        this.expectedRevocations = expectedRevocations;
+        this.batchSize = batchSize;
+        this.bloomFilter = new BloomFilter(expectedRevocations, FALSE_POSITIVE_RATE);
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        lastSync = Instant.now();
+        if (!journal.isEnabled()) {
+            loadFromDatabase();
+            return;
+        }
+        long started = System.nanoTime();
+        int replayed = journal.replay(this::remember);
+        logger.info("Replayed {} revocations from journal in {} ms",
+                replayed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        Thread loader = new Thread(() -> {
+            try {
+                loadFromDatabase();
+            } catch (RuntimeException e) {
+                logger.error("Failed to load revoked tokens from the database: {}", e.getMessage());
+            }
+        }, "revocation-rebuild");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void loadFromDatabase() {
+        Instant expiresAt = Instant.now().plusMillis(TokenLifeTime.ONE_DAY.getDays());
+        long lastId = 0;
+        List<TokenHashView> batch;
+        do {
+            batch = tokenRepository.findByIsValidFalseAndAccessTokenHashIsNotNullAndIdGreaterThanOrderByIdAsc(
+                    lastId, PageRequest.of(0, batchSize));
+            for (TokenHashView view : batch) {
+                remember(TokenDigest.fingerprint(view.getAccessTokenHash()),
+                        (view.getAccessExpiresAt() != null ? view.getAccessExpiresAt() : expiresAt).toEpochMilli());
+                lastId = view.getId();
+            }
+        } while (batch.size() == batchSize);
+        logger.info("Loaded {} revoked tokens", revoked.size());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:PT5S}")
+    public void sync() {
+        Instant started = Instant.now();
+        Instant expiresAt = started.plusMillis(TokenLifeTime.ONE_DAY.getDays());
+        List<TokenHashView> invalidated =
+                tokenRepository.findByInvalidatedAtAfterAndAccessTokenHashIsNotNull(lastSync.minus(SYNC_OVERLAP));
+        for (TokenHashView view : invalidated) {
+            remember(TokenDigest.fingerprint(view.getAccessTokenHash()),
+                    (view.getAccessExpiresAt() != null ? view.getAccessExpiresAt() : expiresAt).toEpochMilli());
+        }
+        lastSync = started;
+    }
+
+    public boolean isRevoked(byte[] digest) {
+        long fingerprint = TokenDigest.fingerprint(digest);
+        return bloomFilter.mightContain(fingerprint) && revoked.containsKey(fingerprint);
+    }
+
+    public void revoke(byte[] digest, Instant expiresAt) {
+        revoke(TokenDigest.fingerprint(digest), expiresAt);
+    }
+
+    public void revoke(long fingerprint, Instant expiresAt) {
+        remember(fingerprint, expiresAt.toEpochMilli());
+        journal.append(fingerprint, expiresAt.toEpochMilli());
+    }
+
+    private synchronized void remember(long fingerprint, long expiresAt) {
+        revoked.merge(fingerprint, expiresAt, Math::max);
+        bloomFilter.put(fingerprint);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.prune-interval:PT10M}")
+    public synchronized void prune() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt < now);
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, revoked.size()), FALSE_POSITIVE_RATE);
+        revoked.keySet().forEach(rebuilt::put);
+        bloomFilter = rebuilt;
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+}
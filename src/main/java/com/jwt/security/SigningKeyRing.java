@@ -0,0 +1,217 @@
+package com.jwt.security;
+
+import com.jwt.utils.MyKeyGenerator;
+import com.jwt.utils.TokenDigest;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Jwks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class SigningKeyRing extends LocatorAdapter<Key> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SigningKeyRing.class);
+
+    private static final long UNKNOWN_KEY_RELOAD_INTERVAL_MILLIS = 1000;
+
+    private final Path keyStorePath;
+    private final char[] keyStorePassword;
+    private final String keyStoreType;
+    private final String activeKeyId;
+
+    private volatile Snapshot snapshot;
+    private volatile long loadedModified;
+    private final AtomicLong lastUnknownKeyReload = new AtomicLong();
+
+    public SigningKeyRing(@Value("${jwt.signing.key-store:}") String keyStore,
+                          @Value("${jwt.signing.key-store-password:}") String keyStorePassword,
+                          @Value("${jwt.signing.key-store-type:PKCS12}") String keyStoreType,
+                          @Value("${jwt.signing.active-key-id:}") String activeKeyId,
+                          @Value("${jwt.signing.algorithm:HS256}") String algorithm) {
+        this.keyStorePath = keyStore.isBlank() ? null : Path.of(keyStore);
+        this.keyStorePassword = keyStorePassword.toCharArray();
+        this.keyStoreType = keyStoreType;
+        this.activeKeyId = activeKeyId;
+        if (keyStorePath == null) {
+            this.snapshot = ephemeral(algorithm);
+            logger.warn("No jwt.signing.key-store configured, signing with generated key {}. "
+                    + "Tokens will not survive a restart or verify on other nodes", snapshot.getActiveKeyId());
+        } else {
+            this.snapshot = load();
+        }
+    }
+
+    public String getActiveKeyId() {
+        return snapshot.getActiveKeyId();
+    }
+
+    public String sign(JwtBuilder builder) {
+        Snapshot current = snapshot;
+        return builder
+                .header().keyId(current.getActiveKeyId()).and()
+                .signWith(current.getActiveSigningKey())
+                .compact();
+    }
+
+    public Map<String, Key> getVerificationKeys() {
+        return snapshot.getVerificationKeys();
+    }
+
+    public PublicKeySet getPublicKeys() {
+        return snapshot.getPublicKeys();
+    }
+
+    @Override
+    protected Key locate(ProtectedHeader header) {
+        String keyId = header.getKeyId();
+        if (keyId == null) {
+            return null;
+        }
+        Key key = snapshot.getVerificationKeys().get(keyId);
+        long now = System.currentTimeMillis();
+        long last = lastUnknownKeyReload.get();
+        if (key == null && keyStorePath != null && now - last >= UNKNOWN_KEY_RELOAD_INTERVAL_MILLIS
+                && lastUnknownKeyReload.compareAndSet(last, now)) {
+            reload();
+            key = snapshot.getVerificationKeys().get(keyId);
+        }
+        return key;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.signing.reload-interval:PT1M}")
+    public synchronized void reload() {
+        if (keyStorePath == null) {
+            return;
+        }
+        try {
+            if (Files.getLastModifiedTime(keyStorePath).toMillis() == loadedModified) {
+                return;
+            }
+            Snapshot reloaded = load();
+            if (!reloaded.getActiveKeyId().equals(snapshot.getActiveKeyId())) {
+                logger.info("Active signing key rotated from {} to {}", snapshot.getActiveKeyId(), reloaded.getActiveKeyId());
+            }
+            snapshot = reloaded;
+        } catch (IOException | IllegalStateException e) {
+            logger.error("Failed to reload signing keys, keeping {}: {}", snapshot.getVerificationKeys().keySet(), e.getMessage());
+        }
+    }
+
+    private Snapshot load() {
+        try (InputStream in = Files.newInputStream(keyStorePath)) {
+            long modified = Files.getLastModifiedTime(keyStorePath).toMillis();
+            KeyStore keyStore = KeyStore.getInstance(keyStoreType);
+            keyStore.load(in, keyStorePassword);
+
+            Map<String, Key> signingKeys = new HashMap<>();
+            Map<String, Key> verificationKeys = new HashMap<>();
+            String newest = null;
+            Date newestCreated = null;
+            for (String alias : Collections.list(keyStore.aliases())) {
+                Key key = keyStore.getKey(alias, keyStorePassword);
+                if (key instanceof SecretKey) {
+                    verificationKeys.put(alias, key);
+                } else if (key instanceof PrivateKey) {
+                    verificationKeys.put(alias, keyStore.getCertificate(alias).getPublicKey());
+                } else {
+                    continue;
+                }
+                signingKeys.put(alias, key);
+                Date created = keyStore.getCreationDate(alias);
+                if (newest == null || (created != null && created.after(newestCreated))) {
+                    newest = alias;
+                    newestCreated = created;
+                }
+            }
+            String active = activeKeyId.isBlank() ? newest : activeKeyId;
+            if (!signingKeys.containsKey(active)) {
+                throw new IllegalStateException("Active signing key '" + active + "' not found in " + keyStorePath
+                        + ", available keys: " + signingKeys.keySet());
+            }
+            loadedModified = modified;
+            logger.info("Loaded signing keys {} from {}, active key {}", verificationKeys.keySet(), keyStorePath, active);
+            return snapshot(active, signingKeys.get(active), verificationKeys);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot load signing keys from " + keyStorePath, e);
+        }
+    }
+
+    private static Snapshot ephemeral(String algorithm) {
+        String keyId = "ephemeral-" + UUID.randomUUID();
+        KeyPair keyPair;
+        switch (algorithm) {
+            case "HS256" -> {
+                byte[] keyBytes = Decoders.BASE64.decode(MyKeyGenerator.generateSecretString());
+                SecretKey key = new SecretKeySpec(keyBytes, "HmacSHA256");
+                return snapshot(keyId, key, Map.of(keyId, key));
+            }
+            case "ES256" -> keyPair = Jwts.SIG.ES256.keyPair().build();
+            case "EdDSA" -> keyPair = Jwks.CRV.Ed25519.keyPair().build();
+            case "RS256" -> keyPair = Jwts.SIG.RS256.keyPair().build();
+            default -> throw new IllegalStateException("Unsupported jwt.signing.algorithm " + algorithm
+                    + ", expected one of HS256, ES256, EdDSA, RS256");
+        }
+        return snapshot(keyId, keyPair.getPrivate(), Map.of(keyId, keyPair.getPublic()));
+    }
+
+    private static Snapshot snapshot(String activeKeyId, Key activeSigningKey, Map<String, Key> verificationKeys) {
+        List<Map<String, ?>> jwks = new ArrayList<>();
+        MessageDigest etag = TokenDigest.newSha256();
+        new TreeMap<>(verificationKeys).forEach((keyId, key) -> {
+            if (key instanceof PublicKey publicKey) {
+                jwks.add(Jwks.builder().key(publicKey).id(keyId).publicKeyUse("sig").build());
+                etag.update(keyId.getBytes(StandardCharsets.UTF_8));
+                etag.update(publicKey.getEncoded());
+            }
+        });
+        PublicKeySet publicKeys = new PublicKeySet(
+                "\"" + HexFormat.of().formatHex(etag.digest(), 0, 16) + "\"", List.copyOf(jwks));
+        return new Snapshot(activeKeyId, activeSigningKey, Map.copyOf(verificationKeys), publicKeys);
+    }
+
+    @lombok.Value
+    public static class PublicKeySet {
+        String etag;
+        List<Map<String, ?>> keys;
+    }
+
+    @lombok.Value
+    private static class Snapshot {
+        String activeKeyId;
+        Key activeSigningKey;
+        Map<String, Key> verificationKeys;
+        PublicKeySet publicKeys;
+    }
+}
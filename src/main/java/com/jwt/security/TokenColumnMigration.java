@@ -0,0 +1,50 @@
+package com.jwt.security;
+
+import com.jwt.entity.Token;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TokenColumnMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenColumnMigration.class);
+
+    private static final List<String> COLUMNS = List.of("access_token", "refresh_token");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TokenColumnMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (String column : COLUMNS) {
+            Integer length = columnLength(column);
+            if (length != null && length < Token.MAX_TOKEN_LENGTH) {
+                jdbcTemplate.execute("alter table tokens alter column " + column
+                        + " set data type varchar(" + Token.MAX_TOKEN_LENGTH + ")");
+                logger.info("Widened tokens.{} from {} to {} characters", column, length, Token.MAX_TOKEN_LENGTH);
+            }
+        }
+    }
+
+    private Integer columnLength(String column) {
+        return jdbcTemplate.query("select character_maximum_length from information_schema.columns "
+                        + "where table_schema = current_schema() "
+                        + "and lower(table_name) = 'tokens' and lower(column_name) = ?",
+                        (rs, rowNum) -> rs.getObject(1, Integer.class), column)
+                .stream()
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,109 @@
+package com.jwt.security;
+
+import com.jwt.entity.Token;
+import com.jwt.repository.TokenDigestView;
+import com.jwt.repository.TokenRepository;
+import com.jwt.utils.TokenDigest;
+import com.jwt.utils.TokenLifeTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Component
+public class TokenDigestMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenDigestMigration.class);
+
+    private final TokenRepository tokenRepository;
+    private final RevocationList revocationList;
+    private final int batchSize;
+
+    public TokenDigestMigration(TokenRepository tokenRepository, RevocationList revocationList,
+                                @Value("${jwt.token-digest.migration.batch-size:500}") int batchSize) {
+        this.tokenRepository = tokenRepository;
+        this.revocationList = revocationList;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Instant revokedUntil = Instant.now().plusMillis(TokenLifeTime.ONE_DAY.getDays());
+        long migrated = 0;
+        long duplicates = 0;
+        List<Token> tokens;
+        do {
+            tokens = tokenRepository.findByAccessTokenHashIsNullAndAccessTokenIsNotNull(PageRequest.of(0, batchSize));
+            List<byte[]> hashes = new ArrayList<>(tokens.size() * 2);
+            for (Token token : tokens) {
+                token.setAccessTokenHash(TokenDigest.sha256(token.getAccessToken()));
+                hashes.add(token.getAccessTokenHash());
+                if (token.getRefreshToken() != null) {
+                    token.setRefreshTokenHash(TokenDigest.sha256(token.getRefreshToken()));
+                    hashes.add(token.getRefreshTokenHash());
+                }
+                if (!token.isValid()) {
+                    revocationList.revoke(token.getAccessTokenHash(), revokedUntil);
+                }
+            }
+            Set<ByteBuffer> seen = storedDigests(hashes);
+            List<Token> unique = new ArrayList<>(tokens.size());
+            List<Token> duplicated = new ArrayList<>();
+            for (Token token : tokens) {
+                if (isDuplicate(token, seen)) {
+                    duplicated.add(token);
+                } else {
+                    unique.add(token);
+                }
+            }
+            tokenRepository.deleteAll(duplicated);
+            tokenRepository.saveAll(unique);
+            migrated += unique.size();
+            duplicates += duplicated.size();
+        } while (tokens.size() == batchSize);
+
+        if (duplicates > 0) {
+            logger.warn("Removed {} token rows that duplicate another row's token", duplicates);
+        }
+        if (migrated > 0) {
+            logger.info("Backfilled token digests for {} rows", migrated);
+        }
+    }
+
+    private Set<ByteBuffer> storedDigests(List<byte[]> hashes) {
+        Set<ByteBuffer> stored = new HashSet<>();
+        if (hashes.isEmpty()) {
+            return stored;
+        }
+        for (TokenDigestView digests : tokenRepository.findDigestsIn(hashes)) {
+            stored.add(ByteBuffer.wrap(digests.getAccessTokenHash()));
+            if (digests.getRefreshTokenHash() != null) {
+                stored.add(ByteBuffer.wrap(digests.getRefreshTokenHash()));
+            }
+        }
+        return stored;
+    }
+
+    private boolean isDuplicate(Token token, Set<ByteBuffer> seen) {
+        ByteBuffer accessHash = ByteBuffer.wrap(token.getAccessTokenHash());
+        ByteBuffer refreshHash = token.getRefreshTokenHash() != null ? ByteBuffer.wrap(token.getRefreshTokenHash()) : null;
+        boolean duplicate = seen.contains(accessHash) || refreshHash != null && seen.contains(refreshHash);
+        if (!duplicate) {
+            seen.add(accessHash);
+            if (refreshHash != null) {
+                seen.add(refreshHash);
+            }
+        }
+        return duplicate;
+    }
+}
@@ -0,0 +1,93 @@
+package com.jwt.security;
+
+import com.jwt.repository.TokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class TokenPurgeJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenPurgeJob.class);
+
+    private final TokenRepository tokenRepository;
+    private final RevocationList revocationList;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration batchDelay;
+    private final Duration invalidatedGracePeriod;
+
+    private final AtomicLong purgedRows = new AtomicLong();
+    private volatile long lastRunRows;
+    private volatile long lastRunMillis;
+
+    public TokenPurgeJob(TokenRepository tokenRepository, RevocationList revocationList,
+                         @Value("${jwt.token-purge.enabled:true}") boolean enabled,
+                         @Value("${jwt.token-purge.batch-size:1000}") int batchSize,
+                         @Value("${jwt.token-purge.batch-delay:PT0.1S}") Duration batchDelay,
+                         @Value("${jwt.token-purge.invalidated-grace-period:PT1H}") Duration invalidatedGracePeriod) {
+        this.tokenRepository = tokenRepository;
+        this.revocationList = revocationList;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.batchDelay = batchDelay;
+        this.invalidatedGracePeriod = invalidatedGracePeriod;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.token-purge.interval:PT1H}",
+            initialDelayString = "${jwt.token-purge.interval:PT1H}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        Instant invalidatedBefore = now.minus(invalidatedGracePeriod);
+        long rows = 0;
+        int batches = 0;
+        int deleted;
+        do {
+            deleted = tokenRepository.deleteExpired(now, invalidatedBefore, batchSize);
+            rows += deleted;
+            batches++;
+        } while (deleted == batchSize && pause());
+        revocationList.prune();
+
+        lastRunRows = rows;
+        lastRunMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        purgedRows.addAndGet(rows);
+        logger.info("Purged {} expired tokens in {} batches in {} ms", rows, batches, lastRunMillis);
+    }
+
+    private boolean pause() {
+        if (batchDelay.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(batchDelay.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public long getPurgedRows() {
+        return purgedRows.get();
+    }
+
+    public long getLastRunRows() {
+        return lastRunRows;
+    }
+
+    public long getLastRunMillis() {
+        return lastRunMillis;
+    }
+}
@@ -0,0 +1,20 @@
+package com.jwt.security;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+@Value
+public class VerifiedToken {
+
+    public static final String REQUEST_ATTRIBUTE = VerifiedToken.class.getName();
+
+    String id;
+    String subject;
+    Instant issuedAt;
+    Instant expiration;
+    String type;
+    List<String> authorities;
+    Long userId;
+}
@@ -0,0 +1,88 @@
+package com.jwt.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.jwt.utils.TokenDigest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+    private final Cache<ByteBuffer, VerifiedToken> cache;
+
+    public VerifiedTokenCache(@Value("${jwt.verified-token-cache.enabled:false}") boolean enabled,
+                              @Value("${jwt.verified-token-cache.maximum-size:10000}") long maximumSize) {
+        this.cache = enabled
+                ? Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpiration())
+                .recordStats()
+                .build()
+                : null;
+    }
+
+    public VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+        if (cache == null) {
+            return verifier.apply(token);
+        }
+        return cache.get(key(token), key -> verifier.apply(token));
+    }
+
+    public void evict(String token) {
+        if (cache != null) {
+            cache.invalidate(key(token));
+        }
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(registry, cache, "verified-tokens");
+        }
+    }
+
+    public CacheStats stats() {
+        return cache != null ? cache.stats() : CacheStats.empty();
+    }
+
+    private static ByteBuffer key(String token) {
+        return ByteBuffer.wrap(TokenDigest.sha256(token));
+    }
+
+    private static class UntilTokenExpiration implements Expiry<ByteBuffer, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedToken value, long currentTime) {
+            if (value.getExpiration() == null) {
+                return Long.MAX_VALUE;
+            }
+            Duration remaining = Duration.between(Instant.now(), value.getExpiration());
+            return remaining.isNegative() ? 0 : remaining.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -2,8 +2,11 @@ package com.jwt.security;
 
 import com.jwt.service.UserService;
 import com.jwt.utils.LoggingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -13,6 +16,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.JdbcUserDetailsManager;
@@ -26,14 +30,20 @@ import javax.sql.DataSource;
 @Configuration
 @EnableWebSecurity
 @EnableGlobalMethodSecurity(prePostEnabled = true)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class WebSecurityConfig {
 
     private final UserService userService;
     private final LoggingFilter loggingFilter;
+    private final LoginThrottleFilter loginThrottleFilter;
+    private final MeterRegistry meterRegistry;
 
-    public WebSecurityConfig(UserService userService, LoggingFilter loggingFilter) {
+    public WebSecurityConfig(UserService userService, LoggingFilter loggingFilter,
+                             LoginThrottleFilter loginThrottleFilter, MeterRegistry meterRegistry) {
         this.userService = userService;
         this.loggingFilter = loggingFilter;
+        this.loginThrottleFilter = loginThrottleFilter;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
@@ -47,7 +57,8 @@ public class WebSecurityConfig {
                 .sessionManagement(session ->
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class)
-                .addFilterAfter(loggingFilter, JwtAuthenticationFilter.class);
+                .addFilterBefore(loggingFilter, JwtAuthenticationFilter.class)
+                .addFilterBefore(loginThrottleFilter, JwtAuthenticationFilter.class);
         return http.build();
     }
 
@@ -56,6 +67,12 @@ public class WebSecurityConfig {
         return new JwtAuthenticationFilter();
     }
 
+    @Bean
+    @Primary
+    public UserDetailsService userDetailsService() {
+        return userService.userDetailsService();
+    }
+
     @Bean
     public UserDetailsManager userDetailsManager(DataSource dataSource) {
         return new JdbcUserDetailsManager(dataSource);
@@ -64,7 +81,7 @@ public class WebSecurityConfig {
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
-        authProvider.setUserDetailsService(userService.userDetailsService());
+        authProvider.setUserDetailsService(userDetailsService());
         authProvider.setPasswordEncoder(passwordEncoder());
         return authProvider;
     }
@@ -76,6 +93,6 @@ public class WebSecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 }
\ No newline at end of file
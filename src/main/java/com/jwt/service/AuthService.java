@@ -6,36 +6,53 @@ import com.jwt.exception.AuthenticationException;
 import com.jwt.exception.InvalidTokenExceptionHandler;
 import com.jwt.utils.AuthRequest;
 import com.jwt.security.JwtService;
+import com.jwt.security.VerifiedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class AuthService {
 
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final UserService userService;
+    private final Counter loginSuccess;
+    private final Counter loginReused;
+    private final Counter loginFailure;
+    private final Counter loginBlocked;
 
-    public AuthService(AuthenticationManager authenticationManager, JwtService jwtService, UserService userService) {
+    public AuthService(AuthenticationManager authenticationManager, JwtService jwtService, UserService userService,
+                       MeterRegistry meterRegistry) {
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
         this.userService = userService;
+        this.loginSuccess = meterRegistry.counter("jwt.logins", "outcome", "success");
+        this.loginReused = meterRegistry.counter("jwt.logins", "outcome", "reused");
+        this.loginFailure = meterRegistry.counter("jwt.logins", "outcome", "failure");
+        this.loginBlocked = meterRegistry.counter("jwt.logins", "outcome", "blocked");
     }
 
     public TokenDTO login(AuthRequest authRequest) {
         if (userService.isUserBlocked(authRequest.getUsername())) {
+            loginBlocked.increment();
             throw new AuthenticationException("Account is blocked due to multiple failed login attempts");
         }
         TokenDTO tokenDTO = new TokenDTO();
-        for (Token token : jwtService.getTokens()) {
-            if (token.getUsername().equals(authRequest.getUsername()) && token.isValid()) {
-                tokenDTO.setAccessToken(token.getAccessToken());
-                tokenDTO.setRefreshToken(token.getRefreshToken());
-                return tokenDTO;
-            }
+        Optional<Token> activeToken = jwtService.getActiveToken(authRequest.getUsername());
+        if (activeToken.isPresent()) {
+            loginReused.increment();
+            tokenDTO.setAccessToken(activeToken.get().getAccessToken());
+            tokenDTO.setRefreshToken(activeToken.get().getRefreshToken());
+            return tokenDTO;
         }
         UsernamePasswordAuthenticationToken authToken =
                 new UsernamePasswordAuthenticationToken(authRequest.getUsername(), authRequest.getPassword());
@@ -43,36 +60,39 @@ public class AuthService {
         try {
             authentication = authenticationManager.authenticate(authToken);
         } catch (Exception e) {
+            loginFailure.increment();
             userService.processFailedLogin(authRequest.getUsername());
             throw new AuthenticationException("Invalid username or password");
         }
         if (authentication.isAuthenticated()) {
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            String accessToken = jwtService.generateAccessToken(userDetails.getUsername());
+            String accessToken = jwtService.generateAccessToken(userDetails);
             String refreshToken = jwtService.generateRefreshToken(userDetails.getUsername());
             tokenDTO.setAccessToken(accessToken);
             tokenDTO.setRefreshToken(refreshToken);
             jwtService.saveToken(userDetails.getUsername(), accessToken, refreshToken);
+            loginSuccess.increment();
         }
         return tokenDTO;
     }
 
     public TokenDTO refreshToken(TokenDTO tokenDTO) {
         String refreshToken = tokenDTO.getRefreshToken();
-        String username;
+        UserDetails userDetails;
         try {
-            username = jwtService.extractUserName(refreshToken);
-
+            VerifiedToken verified = jwtService.verify(refreshToken);
+            if (!JwtService.REFRESH_TOKEN_TYPE.equals(verified.getType())) {
+                throw new InvalidTokenExceptionHandler("Invalid refresh token");
+            }
+            userDetails = userService.userDetailsService().loadUserByUsername(verified.getSubject());
         } catch (Exception e) {
             throw new InvalidTokenExceptionHandler("Invalid refresh token");
         }
-        jwtService.invalidateToken(refreshToken);
-        String newAccessToken = jwtService.generateAccessToken(username);
-        String newRefreshToken = jwtService.generateRefreshToken(username);
-        jwtService.saveToken(username, newAccessToken, newRefreshToken);
+        Token rotated = jwtService.rotateRefreshToken(refreshToken, userDetails)
+                .orElseThrow(() -> new InvalidTokenExceptionHandler("Refresh token has already been used or revoked"));
         TokenDTO newTokenDTO = new TokenDTO();
-        newTokenDTO.setAccessToken(newAccessToken);
-        newTokenDTO.setRefreshToken(newRefreshToken);
+        newTokenDTO.setAccessToken(rotated.getAccessToken());
+        newTokenDTO.setRefreshToken(rotated.getRefreshToken());
         return newTokenDTO;
     }
 
@@ -85,4 +105,9 @@ public class AuthService {
         jwtService.invalidateToken(accessToken);
         return "Successfully logged out";
     }
+
+    public String logoutAll(String username) {
+        int sessions = jwtService.invalidateAllTokens(username);
+        return "Logged out of " + sessions + " session(s)";
+    }
 }
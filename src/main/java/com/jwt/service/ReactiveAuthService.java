@@ -0,0 +1,153 @@
+package com.jwt.service;
+
+import com.jwt.dto.TokenDTO;
+import com.jwt.entity.Token;
+import com.jwt.entity.User;
+import com.jwt.exception.AuthenticationException;
+import com.jwt.exception.InvalidTokenExceptionHandler;
+import com.jwt.exception.LoginRejectedException;
+import com.jwt.repository.ReactiveTokenRepository;
+import com.jwt.repository.ReactiveUserRepository;
+import com.jwt.security.JwtService;
+import com.jwt.utils.AuthRequest;
+import com.jwt.utils.TokenDigest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthService {
+
+    private final ReactiveAuthenticationManager authenticationManager;
+    private final JwtService jwtService;
+    private final ReactiveUserRepository userRepository;
+    private final ReactiveTokenRepository tokenRepository;
+    private final Counter loginSuccess;
+    private final Counter loginReused;
+    private final Counter loginFailure;
+    private final Counter loginBlocked;
+    private final Counter lockouts;
+
+    public ReactiveAuthService(ReactiveAuthenticationManager authenticationManager, JwtService jwtService,
+                               ReactiveUserRepository userRepository, ReactiveTokenRepository tokenRepository,
+                               MeterRegistry meterRegistry) {
+        this.authenticationManager = authenticationManager;
+        this.jwtService = jwtService;
+        this.userRepository = userRepository;
+        this.tokenRepository = tokenRepository;
+        this.loginSuccess = meterRegistry.counter("jwt.logins", "outcome", "success");
+        this.loginReused = meterRegistry.counter("jwt.logins", "outcome", "reused");
+        this.loginFailure = meterRegistry.counter("jwt.logins", "outcome", "failure");
+        this.loginBlocked = meterRegistry.counter("jwt.logins", "outcome", "blocked");
+        this.lockouts = meterRegistry.counter("jwt.logins.lockouts");
+    }
+
+    public Mono<TokenDTO> login(AuthRequest authRequest) {
+        String username = authRequest.getUsername();
+        return userRepository.findByUsername(username)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(user -> {
+                    if (user.isPresent() && isBlocked(user.get())) {
+                        loginBlocked.increment();
+                        return Mono.error(new AuthenticationException("Account is blocked due to multiple failed login attempts"));
+                    }
+                    return tokenRepository.findActiveToken(username, Instant.now())
+                            .doOnNext(token -> loginReused.increment())
+                            .map(ReactiveAuthService::toTokenDTO)
+                            .switchIfEmpty(Mono.defer(() -> authenticate(authRequest)));
+                });
+    }
+
+    private Mono<TokenDTO> authenticate(AuthRequest authRequest) {
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(authRequest.getUsername(), authRequest.getPassword());
+        return authenticationManager.authenticate(authToken)
+                .onErrorMap(RejectedExecutionException.class,
+                        e -> new LoginRejectedException("Too many concurrent login attempts"))
+                .onErrorResume(org.springframework.security.core.AuthenticationException.class, e -> {
+                    loginFailure.increment();
+                    return recordFailedLogin(authRequest.getUsername())
+                            .then(Mono.error(new AuthenticationException("Invalid username or password")));
+                })
+                .flatMap(authentication -> {
+                    Token token = jwtService.newSession((UserDetails) authentication.getPrincipal());
+                    return tokenRepository.save(token)
+                            .doOnSuccess(saved -> loginSuccess.increment())
+                            .thenReturn(toTokenDTO(token));
+                });
+    }
+
+    private Mono<Void> recordFailedLogin(String username) {
+        return userRepository.recordFailedLoginsAndDetectLockout(username, 1, UserService.MAX_FAILED_LOGIN_ATTEMPTS)
+                .doOnNext(lockedOut -> {
+                    if (lockedOut) {
+                        lockouts.increment();
+                    }
+                })
+                .then();
+    }
+
+    public Mono<TokenDTO> refreshToken(TokenDTO tokenDTO) {
+        String refreshToken = tokenDTO.getRefreshToken();
+        return Mono.fromCallable(() -> jwtService.verify(refreshToken))
+                .filter(verified -> JwtService.REFRESH_TOKEN_TYPE.equals(verified.getType()))
+                .flatMap(verified -> userRepository.findByUsername(verified.getSubject()))
+                .onErrorResume(e -> Mono.empty())
+                .switchIfEmpty(Mono.error(() -> new InvalidTokenExceptionHandler("Invalid refresh token")))
+                .flatMap(user -> {
+                    Token replacement = jwtService.newSession(user);
+                    return tokenRepository.rotate(TokenDigest.sha256(refreshToken), replacement)
+                            .switchIfEmpty(Mono.error(() ->
+                                    new InvalidTokenExceptionHandler("Refresh token has already been used or revoked")))
+                            .doOnNext(session -> jwtService.revoke(refreshToken, session))
+                            .thenReturn(toTokenDTO(replacement));
+                });
+    }
+
+    public Mono<String> logout(TokenDTO tokenDTO) {
+        String accessToken = tokenDTO.getAccessToken();
+        if (accessToken.startsWith("Bearer ")) {
+            accessToken = accessToken.substring(7);
+        }
+        String token = accessToken;
+        byte[] digest = TokenDigest.sha256(token);
+        return tokenRepository.findByAccessTokenHash(digest)
+                .single()
+                .flatMap(found -> {
+                    if (!found.isValid()) {
+                        return Mono.just("You have already logged out");
+                    }
+                    return tokenRepository.invalidate(digest)
+                            .doOnNext(session -> jwtService.revoke(token, session))
+                            .thenReturn("Successfully logged out");
+                });
+    }
+
+    public Mono<String> logoutAll(String username) {
+        return tokenRepository.invalidateAll(username)
+                .doOnNext(sessions -> sessions.forEach(jwtService::revoke))
+                .map(sessions -> "Logged out of " + sessions.size() + " session(s)");
+    }
+
+    private static boolean isBlocked(User user) {
+        return !user.isAccountNonLocked() || user.getFailedLoginAttempts() > UserService.MAX_FAILED_LOGIN_ATTEMPTS;
+    }
+
+    private static TokenDTO toTokenDTO(Token token) {
+        TokenDTO tokenDTO = new TokenDTO();
+        tokenDTO.setAccessToken(token.getAccessToken());
+        tokenDTO.setRefreshToken(token.getRefreshToken());
+        return tokenDTO;
+    }
+}
@@ -0,0 +1,89 @@
+package com.jwt.service;
+
+import com.jwt.dto.IntrospectionDTO;
+import com.jwt.exception.TooManyTokensException;
+import com.jwt.repository.SessionStore;
+import com.jwt.security.JwtService;
+import com.jwt.security.RevocationList;
+import com.jwt.security.VerifiedToken;
+import com.jwt.utils.TokenDigest;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class TokenIntrospectionService {
+
+    private final JwtService jwtService;
+    private final SessionStore sessionStore;
+    private final RevocationList revocationList;
+    private final int maxBatchSize;
+
+    public TokenIntrospectionService(JwtService jwtService, SessionStore sessionStore, RevocationList revocationList,
+                                     @Value("${jwt.introspection.max-batch-size:100}") int maxBatchSize) {
+        this.jwtService = jwtService;
+        this.sessionStore = sessionStore;
+        this.revocationList = revocationList;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public List<IntrospectionDTO> introspect(List<String> tokens) {
+        if (tokens == null || tokens.isEmpty()) {
+            return List.of();
+        }
+        if (tokens.size() > maxBatchSize) {
+            throw new TooManyTokensException("At most " + maxBatchSize + " tokens can be introspected per request");
+        }
+
+        List<VerifiedToken> verified = tokens.parallelStream()
+                .map(this::verifyAccessToken)
+                .toList();
+
+        List<ByteBuffer> digests = new ArrayList<>(tokens.size());
+        Set<ByteBuffer> candidates = new LinkedHashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            ByteBuffer digest = null;
+            if (verified.get(i) != null) {
+                digest = ByteBuffer.wrap(TokenDigest.sha256(tokens.get(i)));
+                if (!revocationList.isRevoked(digest.array())) {
+                    candidates.add(digest);
+                }
+            }
+            digests.add(digest);
+        }
+
+        Set<ByteBuffer> active = candidates.isEmpty() ? Set.of() : sessionStore.findValidAccessTokenHashes(candidates);
+
+        List<IntrospectionDTO> result = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            VerifiedToken token = verified.get(i);
+            result.add(token != null && active.contains(digests.get(i)) ? toDTO(token) : IntrospectionDTO.inactive());
+        }
+        return result;
+    }
+
+    private VerifiedToken verifyAccessToken(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            VerifiedToken verifiedToken = jwtService.verify(token);
+            return JwtService.ACCESS_TOKEN_TYPE.equals(verifiedToken.getType()) ? verifiedToken : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static IntrospectionDTO toDTO(VerifiedToken token) {
+        return new IntrospectionDTO(true,
+                token.getSubject(),
+                token.getAuthorities(),
+                token.getExpiration() != null ? token.getExpiration().getEpochSecond() : null);
+    }
+}
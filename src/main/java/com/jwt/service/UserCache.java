@@ -0,0 +1,64 @@
+package com.jwt.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.jwt.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+@Component
+public class UserCache implements MeterBinder {
+
+    private final Cache<String, User> cache;
+
+    public UserCache(@Value("${jwt.user-cache.enabled:true}") boolean enabled,
+                     @Value("${jwt.user-cache.maximum-size:10000}") long maximumSize,
+                     @Value("${jwt.user-cache.ttl:PT30S}") Duration ttl) {
+        this.cache = enabled
+                ? Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build()
+                : null;
+    }
+
+    public User get(String username, Function<String, User> loader) {
+        if (cache == null) {
+            return loader.apply(username);
+        }
+        return cache.get(username, loader);
+    }
+
+    public User getIfPresent(String username) {
+        return cache != null ? cache.getIfPresent(username) : null;
+    }
+
+    public void evict(String username) {
+        if (cache != null) {
+            cache.invalidate(username);
+        }
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(registry, cache, "users");
+        }
+    }
+
+    public CacheStats stats() {
+        return cache != null ? cache.stats() : CacheStats.empty();
+    }
+}
@@ -5,6 +5,14 @@ import com.jwt.entity.Role;
 import com.jwt.entity.User;
 import com.jwt.exception.UserExistException;
 import com.jwt.repository.UserRepository;
+import com.jwt.utils.StripedCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -13,12 +21,25 @@ import org.springframework.stereotype.Service;
 @Service
 public class UserService {
 
+    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+
+    static final int MAX_FAILED_LOGIN_ATTEMPTS = 5;
+
     private final UserRepository userRepository;
     private final RoleService roleService;
+    private final UserCache userCache;
+    private final boolean bufferFailedLogins;
+    private final StripedCounter<String> pendingFailedLogins = new StripedCounter<>();
+    private final Counter lockouts;
 
-    public UserService(UserRepository userRepository, RoleService roleService) {
+    public UserService(UserRepository userRepository, RoleService roleService, UserCache userCache,
+                       MeterRegistry meterRegistry,
+                       @Value("${jwt.failed-login.buffered:false}") boolean bufferFailedLogins) {
         this.userRepository = userRepository;
         this.roleService = roleService;
+        this.userCache = userCache;
+        this.bufferFailedLogins = bufferFailedLogins;
+        this.lockouts = meterRegistry.counter("jwt.logins.lockouts");
     }
 
     public void save(User user) {
@@ -30,6 +51,7 @@ public class UserService {
         role.setAuthority(user.getRole());
         userRepository.save(user);
         roleService.save(role);
+        userCache.evict(user.getUsername());
     }
 
     public UserDTO convertUserToUserDTO(User user) {
@@ -45,7 +67,7 @@ public class UserService {
         return new UserDetailsService() {
             @Override
             public UserDetails loadUserByUsername(String username) {
-                User user = userRepository.findByUsername(username);
+                User user = findByUsername(username);
                 if (user == null) {
                     throw new UsernameNotFoundException("User not found with username: " + username);
                 }
@@ -55,20 +77,45 @@ public class UserService {
     }
 
     public boolean isUserBlocked(String username) {
-        User user = userRepository.findByUsername(username);
-        return user != null && !user.isAccountNonLocked();
+        User user = findByUsername(username);
+        if (user == null) {
+            return false;
+        }
+        return !user.isAccountNonLocked()
+                || user.getFailedLoginAttempts() + pendingFailedLogins.get(username) > MAX_FAILED_LOGIN_ATTEMPTS;
     }
 
     public void processFailedLogin(String username) {
-        User user = userRepository.findByUsername(username);
-        if (user == null) return;
+        if (bufferFailedLogins) {
+            pendingFailedLogins.increment(username);
+            return;
+        }
+        recordFailedLogins(username, 1);
+    }
 
-        int attempts = user.getFailedLoginAttempts();
-        if (attempts > 4) {
-            user.setAccountNonLocked(false);
-        } else {
-            user.setFailedLoginAttempts(attempts + 1);
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${jwt.failed-login.flush-interval:PT0.2S}")
+    public void flushFailedLogins() {
+        pendingFailedLogins.drain((username, attempts) -> {
+            try {
+                recordFailedLogins(username, Math.toIntExact(attempts));
+            } catch (RuntimeException e) {
+                pendingFailedLogins.add(username, attempts);
+                logger.error("Failed to record failed logins for {}, will retry: {}", username, e.getMessage());
+            }
+        });
+    }
+
+    private void recordFailedLogins(String username, int attempts) {
+        boolean lockedOut = userRepository.recordFailedLoginsAndDetectLockout(username, attempts,
+                MAX_FAILED_LOGIN_ATTEMPTS);
+        userCache.evict(username);
+        if (lockedOut) {
+            lockouts.increment();
         }
-        userRepository.save(user);
+    }
+
+    private User findByUsername(String username) {
+        return userCache.get(username, userRepository::findByUsername);
     }
 }
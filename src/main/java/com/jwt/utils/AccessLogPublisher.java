@@ -0,0 +1,89 @@
+package com.jwt.utils;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+@Component
+public class AccessLogPublisher {
+
+    private static final Logger accessLogger = LoggerFactory.getLogger("access");
+
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+
+    private final RingBuffer<AccessLogRecord> ringBuffer;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AccessLogPublisher(@Value("${jwt.access-log.buffer-size:8192}") int bufferSize) {
+        this.ringBuffer = new RingBuffer<>(bufferSize);
+        this.writer = new Thread(this::drainLoop, "access-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void publish(AccessLogRecord record) {
+        if (!ringBuffer.offer(record)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        drain();
+    }
+
+    private int drain() {
+        int written = 0;
+        AccessLogRecord record;
+        while ((record = ringBuffer.poll()) != null) {
+            write(record);
+            written++;
+        }
+        return written;
+    }
+
+    private void write(AccessLogRecord record) {
+        if (record.getStatus() == 401 || record.getStatus() == 403) {
+            accessLogger.warn(format(record));
+        } else {
+            accessLogger.info(format(record));
+        }
+    }
+
+    private static String format(AccessLogRecord record) {
+        return "time=" + Instant.ofEpochMilli(record.getTimestamp())
+                + " method=" + record.getMethod()
+                + " uri=" + record.getUri()
+                + " status=" + record.getStatus()
+                + " duration_us=" + record.getDurationMicros()
+                + " ip=" + record.getRemoteAddr()
+                + " user=" + (record.getUsername() != null ? record.getUsername() : "-")
+                + " token=" + (record.getTokenFingerprint() != null ? record.getTokenFingerprint() : "-");
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(1000);
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public int getQueueDepth() {
+        return ringBuffer.size();
+    }
+}
@@ -0,0 +1,16 @@
+package com.jwt.utils;
+
+import lombok.Value;
+
+@Value
+public class AccessLogRecord {
+
+    long timestamp;
+    String method;
+    String uri;
+    int status;
+    long durationMicros;
+    String remoteAddr;
+    String username;
+    String tokenFingerprint;
+}
@@ -1,60 +1,83 @@
 package com.jwt.utils;
 
-import com.jwt.security.JwtService;
+import com.jwt.security.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Component
 public class LoggingFilter extends OncePerRequestFilter {
 
-    private static final Logger logger = LoggerFactory.getLogger(LoggingFilter.class);
+    private static final int FINGERPRINT_BYTES = 4;
 
-    private final JwtService jwtService;
+    private static final String START_ATTRIBUTE = LoggingFilter.class.getName() + ".START";
 
-    public LoggingFilter(JwtService jwtService) {
-        this.jwtService = jwtService;
+    private final AccessLogPublisher accessLogPublisher;
+    private final double sampleRate;
+
+    public LoggingFilter(AccessLogPublisher accessLogPublisher,
+                         @Value("${jwt.access-log.sample-rate:1.0}") double sampleRate) {
+        this.accessLogPublisher = accessLogPublisher;
+        this.sampleRate = sampleRate;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        String requestURI = request.getRequestURI();
-        String method = request.getMethod();
-        String remoteAddr = request.getRemoteAddr();
-
-        logger.info("Incoming request: URI={}, Method={}, IP={}", requestURI, method, remoteAddr);
-
-        filterChain.doFilter(request, response);
-        logJwtActions(request);
+        Object started = request.getAttribute(START_ATTRIBUTE);
+        long start = started instanceof Long ? (Long) started : System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int status = response.getStatus();
+            if (isAsyncStarted(request)) {
+                request.setAttribute(START_ATTRIBUTE, start);
+            } else if (shouldLog(status)) {
+                accessLogPublisher.publish(new AccessLogRecord(
+                        System.currentTimeMillis(),
+                        request.getMethod(),
+                        request.getRequestURI(),
+                        status,
+                        (System.nanoTime() - start) / 1000,
+                        request.getRemoteAddr(),
+                        username(request),
+                        tokenFingerprint(request)));
+            }
+        }
+    }
 
-        int status = response.getStatus();
-        logger.info("Outgoing response: Status={}, URI={}", status, requestURI);
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
 
-        if (status == HttpServletResponse.SC_UNAUTHORIZED) {
-            logger.warn("Unauthorized access attempt: URI={}, IP={}", requestURI, remoteAddr);
+    private boolean shouldLog(int status) {
+        if (status == HttpServletResponse.SC_UNAUTHORIZED || status == HttpServletResponse.SC_FORBIDDEN) {
+            return true;
         }
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
     }
 
-    private void logJwtActions(HttpServletRequest request) {
+    private static String username(HttpServletRequest request) {
+        Object verifiedToken = request.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE);
+        return verifiedToken instanceof VerifiedToken ? ((VerifiedToken) verifiedToken).getSubject() : null;
+    }
+
+    private static String tokenFingerprint(HttpServletRequest request) {
         String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            logger.info("JWT token detected: {}", token);
-            try {
-                String username = jwtService.extractUserName(token);
-                logger.info("Token belongs to user: {}", username);
-            } catch (Exception e) {
-                logger.error("Failed to process JWT token: {}", e.getMessage());
-            }
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
         }
+        byte[] digest = TokenDigest.sha256(authHeader.substring(7));
+        return HexFormat.of().formatHex(digest, 0, FINGERPRINT_BYTES);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,50 @@
+package com.jwt.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class RingBuffer<T> {
+
+    private final AtomicReferenceArray<T> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    public RingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public boolean offer(T item) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head > mask) {
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        slots.set((int) (sequence & mask), item);
+        return true;
+    }
+
+    public T poll() {
+        long current = head;
+        int index = (int) (current & mask);
+        T item = slots.get(index);
+        if (item == null) {
+            return null;
+        }
+        slots.set(index, null);
+        head = current + 1;
+        return item;
+    }
+
+    public int size() {
+        return (int) (tail.get() - head);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,47 @@
+package com.jwt.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+public class StripedCounter<K> {
+
+    private final Map<K, LongAdder> counters = new ConcurrentHashMap<>();
+
+    public void increment(K key) {
+        add(key, 1);
+    }
+
+    public void add(K key, long delta) {
+        LongAdder counter = counters.computeIfAbsent(key, k -> new LongAdder());
+        counter.add(delta);
+        if (counters.get(key) != counter) {
+            long late = counter.sumThenReset();
+            if (late != 0) {
+                add(key, late);
+            }
+        }
+    }
+
+    public long get(K key) {
+        LongAdder counter = counters.get(key);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    public void drain(BiConsumer<K, Long> consumer) {
+        counters.forEach((key, counter) -> {
+            long count = counter.sumThenReset();
+            if (count == 0 && counters.remove(key, counter)) {
+                count = counter.sumThenReset();
+            }
+            if (count > 0) {
+                consumer.accept(key, count);
+            }
+        });
+    }
+
+    public int size() {
+        return counters.size();
+    }
+}
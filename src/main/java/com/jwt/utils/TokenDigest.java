@@ -0,0 +1,27 @@
+package com.jwt.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public class TokenDigest {
+
+    public static final int LENGTH = 32;
+
+    public static byte[] sha256(String token) {
+        return newSha256().digest(token.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static long fingerprint(byte[] digest) {
+        return ByteBuffer.wrap(digest, 0, Long.BYTES).getLong();
+    }
+}
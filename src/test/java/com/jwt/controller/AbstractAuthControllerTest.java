@@ -0,0 +1,155 @@
+package com.jwt.controller;
+
+import com.jwt.dto.TokenDTO;
+import com.jwt.security.JwtService;
+import com.jwt.security.VerifiedToken;
+import com.jwt.utils.AuthRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Instant;
+import java.util.List;
+
+abstract class AbstractAuthControllerTest {
+
+    @MockitoBean
+    protected JwtService jwtService;
+
+    protected AuthRequest authRequest;
+    protected TokenDTO loginTokenDTO;
+    protected TokenDTO refreshTokenDTORequest;
+    protected TokenDTO refreshTokenDTOResponse;
+    protected TokenDTO tokenDTO;
+    protected String logoutResponseSuccess;
+    protected String logoutResponseAlreadyLoggedOut;
+
+    protected abstract WebTestClient webTestClient();
+
+    protected abstract void givenLogin(TokenDTO response);
+
+    protected abstract void givenLoginRejected();
+
+    protected abstract void givenRefresh(TokenDTO response);
+
+    protected abstract void givenLogout(String response);
+
+    protected abstract void givenLogoutAll(String username, String response);
+
+    protected abstract void verifyNoLogoutAll();
+
+    @BeforeEach
+    void setUpFixtures() {
+        authRequest = new AuthRequest();
+        authRequest.setUsername("username");
+        authRequest.setPassword("password");
+
+        loginTokenDTO = new TokenDTO();
+        loginTokenDTO.setAccessToken("access-token");
+        loginTokenDTO.setRefreshToken("refresh-token");
+
+        refreshTokenDTORequest = new TokenDTO();
+        refreshTokenDTORequest.setAccessToken("old-access-token");
+        refreshTokenDTORequest.setRefreshToken("refresh-token");
+
+        refreshTokenDTOResponse = new TokenDTO();
+        refreshTokenDTOResponse.setAccessToken("new-access-token");
+        refreshTokenDTOResponse.setRefreshToken("refresh-token");
+
+        tokenDTO = new TokenDTO();
+        tokenDTO.setAccessToken("access-token");
+        tokenDTO.setRefreshToken("refresh-token");
+
+        logoutResponseSuccess = "Logged out successfully";
+        logoutResponseAlreadyLoggedOut = "You have already logged out";
+    }
+
+    @Test
+    void shouldLoginSuccessfullyTest() {
+        givenLogin(loginTokenDTO);
+
+        webTestClient().post().uri("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(authRequest)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.accessToken").isEqualTo("access-token")
+                .jsonPath("$.refreshToken").isEqualTo("refresh-token");
+    }
+
+    @Test
+    void shouldRejectLoginWhenPoolIsSaturatedTest() {
+        givenLoginRejected();
+
+        webTestClient().post().uri("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(authRequest)
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "1");
+    }
+
+    @Test
+    void shouldRefreshTokenSuccessfullyTest() {
+        givenRefresh(refreshTokenDTOResponse);
+
+        webTestClient().post().uri("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(refreshTokenDTORequest)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.accessToken").isEqualTo("new-access-token")
+                .jsonPath("$.refreshToken").isEqualTo("refresh-token");
+    }
+
+    @Test
+    void shouldLogoutSuccessfullyTest() {
+        givenLogout(logoutResponseSuccess);
+
+        webTestClient().post().uri("/api/auth/logout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(tokenDTO)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo(logoutResponseSuccess);
+    }
+
+    @Test
+    void shouldReturnAlreadyLoggedOutErrorTest() {
+        givenLogout(logoutResponseAlreadyLoggedOut);
+
+        webTestClient().post().uri("/api/auth/logout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(tokenDTO)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class).isEqualTo(logoutResponseAlreadyLoggedOut);
+    }
+
+    @Test
+    void shouldLogoutAllSessionsTest() {
+        Mockito.when(jwtService.verify("access-token")).thenReturn(new VerifiedToken("id", "username",
+                Instant.now(), Instant.now().plusSeconds(60), JwtService.ACCESS_TOKEN_TYPE, List.of("ROLE_USER"), 1L));
+        givenLogoutAll("username", "Logged out of 3 session(s)");
+
+        webTestClient().post().uri("/api/auth/logout-all")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer access-token")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("Logged out of 3 session(s)");
+    }
+
+    @Test
+    void shouldRejectLogoutAllWithoutTokenTest() {
+        webTestClient().post().uri("/api/auth/logout-all")
+                .exchange()
+                .expectStatus().isForbidden();
+        verifyNoLogoutAll();
+    }
+}
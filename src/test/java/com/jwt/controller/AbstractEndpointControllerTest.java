@@ -0,0 +1,81 @@
+package com.jwt.controller;
+
+import com.jwt.security.JwtService;
+import com.jwt.security.VerifiedToken;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Instant;
+import java.util.List;
+
+abstract class AbstractEndpointControllerTest {
+
+    @MockitoBean
+    protected JwtService jwtService;
+
+    protected abstract WebTestClient webTestClient();
+
+    @Test
+    void shouldReturnHelloWorldTest() {
+        webTestClient().get().uri("/api/endpoint/for-everyone")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("Hello World!");
+    }
+
+    @Test
+    void shouldReturnHelloAdminTest() {
+        webTestClient().get().uri("/api/endpoint/for-admin")
+                .header(HttpHeaders.AUTHORIZATION, bearer("ROLE_ADMIN"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("Hello Admin!");
+    }
+
+    @Test
+    void shouldReturnSuccessForValidUserTokenTest() {
+        webTestClient().get().uri("/api/endpoint/for-user")
+                .header(HttpHeaders.AUTHORIZATION, bearer("ROLE_USER"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("Hello User!");
+    }
+
+    @Test
+    void shouldReturnSuccessForValidSuperAdminTokenTest() {
+        webTestClient().get().uri("/api/endpoint/for-super-admin")
+                .header(HttpHeaders.AUTHORIZATION, bearer("ROLE_SUPER_ADMIN"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("Hello Super Admin!");
+    }
+
+    @Test
+    void shouldForbidUserWithoutRequiredAuthorityTest() {
+        webTestClient().get().uri("/api/endpoint/for-admin")
+                .header(HttpHeaders.AUTHORIZATION, bearer("ROLE_USER"))
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    void shouldRejectRevokedTokenTest() {
+        String header = bearer("ROLE_USER");
+        Mockito.when(jwtService.isRevoked("validToken")).thenReturn(true);
+
+        webTestClient().get().uri("/api/endpoint/for-user")
+                .header(HttpHeaders.AUTHORIZATION, header)
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody(String.class).isEqualTo("Token has been revoked");
+    }
+
+    private String bearer(String authority) {
+        Mockito.when(jwtService.verify("validToken")).thenReturn(new VerifiedToken("id", "username",
+                Instant.now(), Instant.now().plusSeconds(60), JwtService.ACCESS_TOKEN_TYPE, List.of(authority), 1L));
+        return "Bearer validToken";
+    }
+}
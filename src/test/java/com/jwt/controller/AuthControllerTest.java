@@ -1,26 +1,21 @@
 package com.jwt.controller;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jwt.dto.TokenDTO;
-import com.jwt.security.JwtService;
+import com.jwt.exception.LoginRejectedException;
 import com.jwt.service.AuthService;
 import com.jwt.utils.AuthRequest;
-import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.test.web.servlet.MockMvc;
-
-import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import org.springframework.test.web.servlet.client.MockMvcWebTestClient;
 
 @SpringBootTest
 @AutoConfigureMockMvc
-class AuthControllerTest {
+class AuthControllerTest extends AbstractAuthControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
@@ -28,88 +23,39 @@ class AuthControllerTest {
     @MockitoBean
     private AuthService authService;
 
-    @MockitoBean
-    private JwtService jwtService;
-
-    private AuthRequest authRequest;
-    private TokenDTO loginTokenDTO;
-    private TokenDTO refreshTokenDTORequest;
-    private TokenDTO refreshTokenDTOResponse;
-    private TokenDTO tokenDTO;
-    private String logoutResponseSuccess;
-    private String logoutResponseAlreadyLoggedOut;
-
-    @BeforeEach
-    void setUp() {
-        // Setting up common test data for each test
-
-        authRequest = new AuthRequest();
-        authRequest.setUsername("username");
-        authRequest.setPassword("password");
-
-        loginTokenDTO = new TokenDTO();
-        loginTokenDTO.setAccessToken("access-token");
-        loginTokenDTO.setRefreshToken("refresh-token");
-
-        refreshTokenDTORequest = new TokenDTO();
-        refreshTokenDTORequest.setAccessToken("old-access-token");
-        refreshTokenDTORequest.setRefreshToken("refresh-token");
-
-        refreshTokenDTOResponse = new TokenDTO();
-        refreshTokenDTOResponse.setAccessToken("new-access-token");
-        refreshTokenDTOResponse.setRefreshToken("refresh-token");
-
-        tokenDTO = new TokenDTO();
-        tokenDTO.setAccessToken("access-token");
-        tokenDTO.setRefreshToken("refresh-token");
-
-        logoutResponseSuccess = "Logged out successfully";
-        logoutResponseAlreadyLoggedOut = "You have already logged out";
+    @Override
+    protected WebTestClient webTestClient() {
+        return MockMvcWebTestClient.bindTo(mockMvc).build();
     }
 
-    @Test
-    void shouldLoginSuccessfullyTest() throws Exception {
-        Mockito.when(authService.login(Mockito.any(AuthRequest.class))).thenReturn(loginTokenDTO);
-
-        mockMvc.perform(post("/api/auth/login")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(new ObjectMapper().writeValueAsString(authRequest)))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.accessToken").value("access-token"))
-                .andExpect(jsonPath("$.refreshToken").value("refresh-token"));
+    @Override
+    protected void givenLogin(TokenDTO response) {
+        Mockito.when(authService.login(Mockito.any(AuthRequest.class))).thenReturn(response);
     }
 
-    @Test
-    void shouldRefreshTokenSuccessfullyTest() throws Exception {
-        Mockito.when(authService.refreshToken(Mockito.any(TokenDTO.class))).thenReturn(refreshTokenDTOResponse);
-
-        mockMvc.perform(post("/api/auth/refresh")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(new ObjectMapper().writeValueAsString(refreshTokenDTORequest)))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.accessToken").value("new-access-token"))
-                .andExpect(jsonPath("$.refreshToken").value("refresh-token"));
+    @Override
+    protected void givenLoginRejected() {
+        Mockito.when(authService.login(Mockito.any(AuthRequest.class)))
+                .thenThrow(new LoginRejectedException("saturated"));
     }
 
-    @Test
-    void shouldLogoutSuccessfullyTest() throws Exception {
-        Mockito.when(authService.logout(Mockito.any(TokenDTO.class))).thenReturn(logoutResponseSuccess);
+    @Override
+    protected void givenRefresh(TokenDTO response) {
+        Mockito.when(authService.refreshToken(Mockito.any(TokenDTO.class))).thenReturn(response);
+    }
 
-        mockMvc.perform(post("/api/auth/logout")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(new ObjectMapper().writeValueAsString(tokenDTO)))
-                .andExpect(status().isOk())
-                .andExpect(content().string(logoutResponseSuccess));
+    @Override
+    protected void givenLogout(String response) {
+        Mockito.when(authService.logout(Mockito.any(TokenDTO.class))).thenReturn(response);
     }
 
-    @Test
-    void shouldReturnAlreadyLoggedOutErrorTest() throws Exception {
-        Mockito.when(authService.logout(Mockito.any(TokenDTO.class))).thenReturn(logoutResponseAlreadyLoggedOut);
+    @Override
+    protected void givenLogoutAll(String username, String response) {
+        Mockito.when(authService.logoutAll(username)).thenReturn(response);
+    }
 
-        mockMvc.perform(post("/api/auth/logout")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(new ObjectMapper().writeValueAsString(tokenDTO)))
-                .andExpect(status().isBadRequest())
-                .andExpect(content().string(logoutResponseAlreadyLoggedOut));
+    @Override
+    protected void verifyNoLogoutAll() {
+        Mockito.verify(authService, Mockito.never()).logoutAll(Mockito.anyString());
     }
 }
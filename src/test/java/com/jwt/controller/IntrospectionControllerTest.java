@@ -0,0 +1,68 @@
+package com.jwt.controller;
+
+import com.jwt.security.JwtService;
+import com.jwt.security.VerifiedToken;
+import com.jwt.service.TokenIntrospectionService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.client.MockMvcWebTestClient;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IntrospectionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private JwtService jwtService;
+
+    @MockitoBean
+    private TokenIntrospectionService tokenIntrospectionService;
+
+    @Test
+    void shouldIntrospectTokensForAdminTest() {
+        Mockito.when(tokenIntrospectionService.introspect(any())).thenReturn(List.of());
+
+        webTestClient().post().uri("/api/auth/introspect")
+                .header(HttpHeaders.AUTHORIZATION, bearer("ROLE_ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"tokens\":[\"someToken\"]}")
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void shouldForbidIntrospectionForPlainUserTest() {
+        webTestClient().post().uri("/api/auth/introspect")
+                .header(HttpHeaders.AUTHORIZATION, bearer("ROLE_USER"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"tokens\":[\"someToken\"]}")
+                .exchange()
+                .expectStatus().isForbidden();
+        Mockito.verifyNoInteractions(tokenIntrospectionService);
+    }
+
+    private WebTestClient webTestClient() {
+        return MockMvcWebTestClient.bindTo(mockMvc).build();
+    }
+
+    private String bearer(String authority) {
+        Mockito.when(jwtService.verify("validToken")).thenReturn(new VerifiedToken("id", "username",
+                Instant.now(), Instant.now().plusSeconds(60), JwtService.ACCESS_TOKEN_TYPE, List.of(authority), 1L));
+        return "Bearer validToken";
+    }
+}
@@ -0,0 +1,87 @@
+package com.jwt.controller;
+
+import com.jwt.entity.User;
+import com.jwt.repository.JpaSessionStore;
+import com.jwt.repository.TokenRepository;
+import com.jwt.repository.TokenWriteBehindBuffer;
+import com.jwt.security.JwtService;
+import com.jwt.security.RevocationJournal;
+import com.jwt.security.RevocationList;
+import com.jwt.security.SigningKeyRing;
+import com.jwt.security.VerifiedTokenCache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class JwksControllerTest {
+
+    private SigningKeyRing signingKeyRing;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        signingKeyRing = new SigningKeyRing("", "", "PKCS12", "", "ES256");
+        mockMvc = MockMvcBuilders.standaloneSetup(new JwksController(signingKeyRing, Duration.ofMinutes(15))).build();
+    }
+
+    @Test
+    void shouldServeCacheablePublicKeys() throws Exception {
+        mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=900, public, stale-if-error=3600, stale-while-revalidate=900"))
+                .andExpect(header().string("ETag", signingKeyRing.getPublicKeys().getEtag()))
+                .andExpect(jsonPath("$.keys[0].kid").value(signingKeyRing.getActiveKeyId()))
+                .andExpect(jsonPath("$.keys[0].kty").value("EC"))
+                .andExpect(jsonPath("$.keys[0].d").doesNotExist());
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForMatchingETag() throws Exception {
+        mockMvc.perform(get("/.well-known/jwks.json")
+                        .header("If-None-Match", signingKeyRing.getPublicKeys().getEtag()))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void shouldLetResourceServerVerifyTokensLocally() throws Exception {
+        TokenRepository tokenRepository = mock(TokenRepository.class);
+        JwtService jwtService = new JwtService(
+                new JpaSessionStore(tokenRepository,
+                        new TokenWriteBehindBuffer(null, false, 1, 1, Duration.ofSeconds(1), Duration.ZERO)),
+                new VerifiedTokenCache(false, 0),
+                new RevocationList(tokenRepository, new RevocationJournal(false, "", DataSize.ofMegabytes(1)), 1000, 100),
+                signingKeyRing, new SimpleMeterRegistry());
+        User user = new User();
+        user.setUsername("testuser");
+        user.setRole("ROLE_USER");
+        String token = jwtService.generateAccessToken(user);
+
+        MvcResult result = mockMvc.perform(get("/.well-known/jwks.json")).andReturn();
+        JwkSet jwks = Jwks.setParser().build().parse(result.getResponse().getContentAsString());
+
+        String subject = Jwts.parser()
+                .keyLocator(header -> jwks.getKeys().stream()
+                        .filter(jwk -> jwk.getId().equals(((ProtectedHeader) header).getKeyId()))
+                        .findFirst().orElseThrow().toKey())
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+        assertEquals("testuser", subject);
+    }
+}
@@ -0,0 +1,60 @@
+package com.jwt.controller;
+
+import com.jwt.dto.TokenDTO;
+import com.jwt.exception.LoginRejectedException;
+import com.jwt.service.ReactiveAuthService;
+import com.jwt.utils.AuthRequest;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "server.ssl.enabled=false")
+@ActiveProfiles("reactive")
+class ReactiveAuthControllerTest extends AbstractAuthControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private ReactiveAuthService authService;
+
+    @Override
+    protected WebTestClient webTestClient() {
+        return webTestClient;
+    }
+
+    @Override
+    protected void givenLogin(TokenDTO response) {
+        Mockito.when(authService.login(Mockito.any(AuthRequest.class))).thenReturn(Mono.just(response));
+    }
+
+    @Override
+    protected void givenLoginRejected() {
+        Mockito.when(authService.login(Mockito.any(AuthRequest.class)))
+                .thenReturn(Mono.error(new LoginRejectedException("saturated")));
+    }
+
+    @Override
+    protected void givenRefresh(TokenDTO response) {
+        Mockito.when(authService.refreshToken(Mockito.any(TokenDTO.class))).thenReturn(Mono.just(response));
+    }
+
+    @Override
+    protected void givenLogout(String response) {
+        Mockito.when(authService.logout(Mockito.any(TokenDTO.class))).thenReturn(Mono.just(response));
+    }
+
+    @Override
+    protected void givenLogoutAll(String username, String response) {
+        Mockito.when(authService.logoutAll(username)).thenReturn(Mono.just(response));
+    }
+
+    @Override
+    protected void verifyNoLogoutAll() {
+        Mockito.verify(authService, Mockito.never()).logoutAll(Mockito.anyString());
+    }
+}
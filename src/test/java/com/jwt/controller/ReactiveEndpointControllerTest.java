@@ -0,0 +1,19 @@
+package com.jwt.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "server.ssl.enabled=false")
+@ActiveProfiles("reactive")
+class ReactiveEndpointControllerTest extends AbstractEndpointControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Override
+    protected WebTestClient webTestClient() {
+        return webTestClient;
+    }
+}
@@ -0,0 +1,197 @@
+package com.jwt.repository;
+
+import com.jwt.entity.Token;
+import com.jwt.exception.SessionStoreFullException;
+import com.jwt.utils.TokenDigest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemorySessionStoreTest {
+
+    private InMemorySessionStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemorySessionStore(DataSize.ofMegabytes(1));
+    }
+
+    @Test
+    void shouldFindSavedAccessToken() {
+        store.save(token("testuser", "access", "refresh"), 0);
+
+        Token found = store.findByAccessTokenHash(TokenDigest.sha256("access")).orElseThrow();
+
+        assertTrue(found.isValid());
+        assertTrue(store.findByAccessTokenHash(TokenDigest.sha256("refresh")).isEmpty());
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void shouldInvalidateBothTokensOfSessionByRefreshToken() {
+        Token token = token("testuser", "access", "refresh");
+        store.save(token, 0);
+
+        RevokedSession revoked = store.invalidate(TokenDigest.sha256("refresh")).orElseThrow();
+
+        assertEquals(TokenDigest.fingerprint(TokenDigest.sha256("access")), revoked.getAccessTokenFingerprint());
+        assertEquals(token.getAccessExpiresAt().truncatedTo(ChronoUnit.MILLIS), revoked.getAccessExpiresAt());
+        assertFalse(store.findByAccessTokenHash(TokenDigest.sha256("access")).orElseThrow().isValid());
+        assertTrue(store.rotate(TokenDigest.sha256("refresh"), token("testuser", "access2", "refresh2")).isEmpty());
+    }
+
+    @Test
+    void shouldRotateRefreshTokenOnlyOnce() {
+        store.save(token("testuser", "access", "refresh"), 0);
+
+        assertTrue(store.rotate(TokenDigest.sha256("refresh"), token("testuser", "access2", "refresh2")).isPresent());
+        assertTrue(store.rotate(TokenDigest.sha256("refresh"), token("testuser", "access3", "refresh3")).isEmpty());
+        assertTrue(store.rotate(TokenDigest.sha256("access2"), token("testuser", "access4", "refresh4")).isEmpty());
+
+        Set<ByteBuffer> valid = store.findValidAccessTokenHashes(List.of(
+                ByteBuffer.wrap(TokenDigest.sha256("access")),
+                ByteBuffer.wrap(TokenDigest.sha256("access2"))));
+        assertEquals(Set.of(ByteBuffer.wrap(TokenDigest.sha256("access2"))), valid);
+    }
+
+    @Test
+    void shouldEvictOldestSessionsBeyondLimit() {
+        Instant now = Instant.now();
+        store.save(token("testuser", "access1", "refresh1", now.plusSeconds(10)), 2);
+        store.save(token("testuser", "access2", "refresh2", now.plusSeconds(20)), 2);
+        store.save(token("otheruser", "access3", "refresh3", now.plusSeconds(5)), 2);
+
+        List<RevokedSession> evicted = store.save(token("testuser", "access4", "refresh4", now.plusSeconds(30)), 2);
+
+        assertEquals(1, evicted.size());
+        assertEquals(TokenDigest.fingerprint(TokenDigest.sha256("access1")), evicted.get(0).getAccessTokenFingerprint());
+        assertTrue(store.findByAccessTokenHash(TokenDigest.sha256("access3")).orElseThrow().isValid());
+    }
+
+    @Test
+    void shouldInvalidateAllSessionsOfUser() {
+        store.save(token("testuser", "access1", "refresh1"), 0);
+        store.save(token("testuser", "access2", "refresh2"), 0);
+        store.save(token("otheruser", "access3", "refresh3"), 0);
+
+        List<RevokedSession> revoked = store.invalidateAll("testuser");
+
+        assertEquals(2, revoked.size());
+        assertFalse(store.findByAccessTokenHash(TokenDigest.sha256("access1")).orElseThrow().isValid());
+        assertFalse(store.findByAccessTokenHash(TokenDigest.sha256("access2")).orElseThrow().isValid());
+        assertTrue(store.findByAccessTokenHash(TokenDigest.sha256("access3")).orElseThrow().isValid());
+        assertTrue(store.invalidateAll("testuser").isEmpty());
+    }
+
+    @Test
+    void shouldInvalidateRotatedSessionsOfUser() {
+        store.save(token("testuser", "access1", "refresh1"), 0);
+        store.rotate(TokenDigest.sha256("refresh1"), token("testuser", "access2", "refresh2"));
+        store.save(token("testuser", "access3", "refresh3"), 0);
+        store.invalidate(TokenDigest.sha256("access3"));
+
+        List<RevokedSession> revoked = store.invalidateAll("testuser");
+
+        assertEquals(1, revoked.size());
+        assertEquals(TokenDigest.fingerprint(TokenDigest.sha256("access2")), revoked.get(0).getAccessTokenFingerprint());
+    }
+
+    @Test
+    void shouldSweepExpiredEntries() {
+        store.save(token("testuser", "expired", "expiredRefresh", Instant.now().minusSeconds(1)), 0);
+        store.save(token("testuser", "access", "refresh"), 0);
+
+        store.evictExpired();
+
+        assertEquals(2, store.size());
+        assertTrue(store.findByAccessTokenHash(TokenDigest.sha256("expired")).isEmpty());
+        assertTrue(store.findByAccessTokenHash(TokenDigest.sha256("access")).isPresent());
+    }
+
+    @Test
+    void shouldGrowWhenLoadFactorIsExceeded() {
+        int initialCapacity = store.capacity();
+
+        for (int i = 0; i < initialCapacity; i++) {
+            store.save(token("user" + i, "access" + i, "refresh" + i), 0);
+        }
+
+        assertEquals(initialCapacity * 2, store.size());
+        assertTrue(store.capacity() >= initialCapacity * 4);
+        for (int i = 0; i < initialCapacity; i++) {
+            assertTrue(store.findByAccessTokenHash(TokenDigest.sha256("access" + i)).isPresent());
+        }
+    }
+
+    @Test
+    void shouldKeepSessionsOfUserAcrossRehash() {
+        store.save(token("testuser", "access1", "refresh1"), 0);
+        store.save(token("testuser", "access2", "refresh2"), 0);
+        int initialCapacity = store.capacity();
+
+        for (int i = 0; i < initialCapacity; i++) {
+            store.save(token("user" + i, "access" + i, "refresh" + i), 0);
+        }
+
+        assertTrue(store.capacity() > initialCapacity);
+        assertEquals(2, store.invalidateAll("testuser").size());
+        assertTrue(store.invalidateAll("testuser").isEmpty());
+    }
+
+    @Test
+    void shouldRejectSessionsWhenFull() {
+        InMemorySessionStore small = new InMemorySessionStore(DataSize.ofKilobytes(32));
+        int sessions = small.capacity() / 6;
+        for (int i = 0; i < sessions; i++) {
+            small.save(token("user" + i, "access" + i, "refresh" + i), 0);
+        }
+
+        assertThrows(SessionStoreFullException.class,
+                () -> small.save(token("testuser", "access", "refresh"), 0));
+        assertEquals(sessions * 2, small.size());
+    }
+
+    @Test
+    void shouldFailFastWhenFullUntilSweepFreesSpace() throws InterruptedException {
+        InMemorySessionStore small = new InMemorySessionStore(DataSize.ofKilobytes(32));
+        int sessions = small.capacity() / 6;
+        Instant soon = Instant.now().plusMillis(500);
+        for (int i = 0; i < sessions; i++) {
+            small.save(token("user" + i, "access" + i, "refresh" + i, i % 2 == 0 ? soon : Instant.now().plusSeconds(60)), 0);
+        }
+        assertThrows(SessionStoreFullException.class,
+                () -> small.save(token("testuser", "access", "refresh"), 0));
+
+        Thread.sleep(Duration.between(Instant.now(), soon).toMillis() + 50);
+
+        assertThrows(SessionStoreFullException.class,
+                () -> small.save(token("testuser", "access", "refresh"), 0));
+        small.evictExpired();
+        small.save(token("testuser", "access", "refresh"), 0);
+        assertTrue(small.findByAccessTokenHash(TokenDigest.sha256("access")).isPresent());
+    }
+
+    private static Token token(String username, String accessToken, String refreshToken) {
+        return token(username, accessToken, refreshToken, Instant.now().plusSeconds(60));
+    }
+
+    private static Token token(String username, String accessToken, String refreshToken, Instant expiresAt) {
+        Token token = new Token();
+        token.setUsername(username);
+        token.setAccessTokenHash(TokenDigest.sha256(accessToken));
+        token.setRefreshTokenHash(TokenDigest.sha256(refreshToken));
+        token.setAccessExpiresAt(expiresAt);
+        token.setRefreshExpiresAt(expiresAt);
+        token.setValid(true);
+        return token;
+    }
+}
@@ -0,0 +1,129 @@
+package com.jwt.repository;
+
+import com.jwt.entity.Token;
+import com.jwt.utils.TokenDigest;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveTokenRepositoryTest {
+
+    private ReactiveTokenRepository tokenRepository;
+    private Instant expiresAt;
+
+    @BeforeEach
+    void setUp() {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(
+                "r2dbc:h2:mem:///" + UUID.randomUUID() + "?options=DB_CLOSE_DELAY=-1;MODE=PostgreSQL");
+        DatabaseClient.create(connectionFactory)
+                .sql("create table tokens (id bigint generated by default as identity primary key, username varchar(255), "
+                        + "access_token varchar(1024), refresh_token varchar(1024), access_token_hash varbinary(32), "
+                        + "refresh_token_hash varbinary(32), is_valid boolean, access_expires_at timestamp with time zone, "
+                        + "refresh_expires_at timestamp with time zone, invalidated_at timestamp with time zone)")
+                .then()
+                .block();
+        tokenRepository = new ReactiveTokenRepository(connectionFactory);
+        expiresAt = Instant.now().plusSeconds(60).truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    @Test
+    void shouldSaveAndFindTokenByAccessTokenHash() {
+        tokenRepository.save(token("user", "access", "refresh")).block();
+
+        StepVerifier.create(tokenRepository.findByAccessTokenHash(TokenDigest.sha256("access")))
+                .assertNext(token -> {
+                    assertEquals("user", token.getUsername());
+                    assertEquals("refresh", token.getRefreshToken());
+                    assertArrayEquals(TokenDigest.sha256("refresh"), token.getRefreshTokenHash());
+                    assertEquals(expiresAt, token.getAccessExpiresAt());
+                    assertTrue(token.isValid());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldFindLatestActiveToken() {
+        tokenRepository.save(token("user", "access-1", "refresh-1")).block();
+        tokenRepository.save(token("user", "access-2", "refresh-2")).block();
+
+        StepVerifier.create(tokenRepository.findActiveToken("user", Instant.now()))
+                .assertNext(token -> assertEquals("access-2", token.getAccessToken()))
+                .verifyComplete();
+        StepVerifier.create(tokenRepository.findActiveToken("user", expiresAt))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldInvalidateByAccessOrRefreshTokenHash() {
+        tokenRepository.save(token("user", "access", "refresh")).block();
+
+        StepVerifier.create(tokenRepository.invalidate(TokenDigest.sha256("refresh")))
+                .assertNext(session -> {
+                    assertEquals(TokenDigest.fingerprint(TokenDigest.sha256("access")), session.getAccessTokenFingerprint());
+                    assertEquals(expiresAt, session.getAccessExpiresAt());
+                })
+                .verifyComplete();
+        StepVerifier.create(tokenRepository.findByAccessTokenHash(TokenDigest.sha256("access")))
+                .assertNext(token -> {
+                    assertFalse(token.isValid());
+                    assertNotNull(token.getInvalidatedAt());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRotateRefreshTokenOnlyOnce() {
+        tokenRepository.save(token("user", "access", "refresh")).block();
+        Token replacement = token("user", "access-2", "refresh-2");
+
+        StepVerifier.create(tokenRepository.rotate(TokenDigest.sha256("refresh"), replacement))
+                .assertNext(session ->
+                        assertEquals(TokenDigest.fingerprint(TokenDigest.sha256("access")), session.getAccessTokenFingerprint()))
+                .verifyComplete();
+        StepVerifier.create(tokenRepository.rotate(TokenDigest.sha256("refresh"), token("user", "access-3", "refresh-3")))
+                .verifyComplete();
+        StepVerifier.create(tokenRepository.findActiveToken("user", Instant.now()))
+                .assertNext(token -> assertEquals("access-2", token.getAccessToken()))
+                .verifyComplete();
+        StepVerifier.create(tokenRepository.findByAccessTokenHash(TokenDigest.sha256("access-3")))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldInvalidateAllSessionsOfUser() {
+        tokenRepository.save(token("user", "access-1", "refresh-1")).block();
+        tokenRepository.save(token("user", "access-2", "refresh-2")).block();
+        tokenRepository.save(token("other", "access-3", "refresh-3")).block();
+
+        StepVerifier.create(tokenRepository.invalidateAll("user"))
+                .assertNext(sessions -> assertEquals(2, sessions.size()))
+                .verifyComplete();
+        StepVerifier.create(tokenRepository.findActiveToken("user", Instant.now()))
+                .verifyComplete();
+        StepVerifier.create(tokenRepository.findActiveToken("other", Instant.now()))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    private Token token(String username, String accessToken, String refreshToken) {
+        Token token = new Token();
+        token.setUsername(username);
+        token.setAccessToken(accessToken);
+        token.setAccessTokenHash(TokenDigest.sha256(accessToken));
+        token.setRefreshToken(refreshToken);
+        token.setRefreshTokenHash(TokenDigest.sha256(refreshToken));
+        token.setValid(true);
+        token.setAccessExpiresAt(expiresAt);
+        token.setRefreshExpiresAt(expiresAt.plusSeconds(60));
+        return token;
+    }
+}
@@ -0,0 +1,75 @@
+package com.jwt.repository;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.test.StepVerifier;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveUserRepositoryTest {
+
+    private ReactiveUserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(
+                "r2dbc:h2:mem:///" + UUID.randomUUID() + "?options=DB_CLOSE_DELAY=-1;MODE=PostgreSQL");
+        DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+        databaseClient.sql("create table users (id bigint generated by default as identity primary key, username varchar(255), "
+                        + "password varchar(255), role varchar(255), enabled boolean, failed_login_attempts int)")
+                .then()
+                .block();
+        databaseClient.sql("insert into users (username, password, role, enabled, failed_login_attempts) "
+                        + "values ('user', 'secret', 'ROLE_USER', true, 4)")
+                .then()
+                .block();
+        userRepository = new ReactiveUserRepository(connectionFactory);
+    }
+
+    @Test
+    void shouldFindUserByUsername() {
+        StepVerifier.create(userRepository.findByUsername("user"))
+                .assertNext(user -> {
+                    assertNotNull(user.getId());
+                    assertEquals("secret", user.getPassword());
+                    assertEquals("ROLE_USER", user.getRole());
+                    assertTrue(user.isAccountNonLocked());
+                    assertEquals(4, user.getFailedLoginAttempts());
+                })
+                .verifyComplete();
+        StepVerifier.create(userRepository.findByUsername("missing"))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldLockUserOnceThresholdIsExceeded() {
+        StepVerifier.create(userRepository.recordFailedLogins("user", 1, 5))
+                .expectNext(1L)
+                .verifyComplete();
+        StepVerifier.create(userRepository.findByUsername("user"))
+                .assertNext(user -> assertTrue(user.isAccountNonLocked()))
+                .verifyComplete();
+
+        StepVerifier.create(userRepository.recordFailedLoginsAndDetectLockout("user", 3, 5))
+                .expectNext(true)
+                .verifyComplete();
+        StepVerifier.create(userRepository.recordFailedLoginsAndDetectLockout("user", 3, 5))
+                .expectNext(false)
+                .verifyComplete();
+        StepVerifier.create(userRepository.recordFailedLoginsAndDetectLockout("missing", 1, 5))
+                .expectNext(false)
+                .verifyComplete();
+
+        StepVerifier.create(userRepository.findByUsername("user"))
+                .assertNext(user -> {
+                    assertFalse(user.isAccountNonLocked());
+                    assertEquals(5, user.getFailedLoginAttempts());
+                })
+                .verifyComplete();
+    }
+}
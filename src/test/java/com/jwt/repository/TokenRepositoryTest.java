@@ -0,0 +1,251 @@
+package com.jwt.repository;
+
+import com.jwt.entity.Token;
+import com.jwt.utils.TokenDigest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class TokenRepositoryTest {
+
+    private static final int TOKEN_COUNT = 100_000;
+
+    @Autowired
+    private TokenRepository tokenRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private void seedTokens() {
+        List<Object[]> rows = new ArrayList<>(TOKEN_COUNT);
+        OffsetDateTime expiresAt = OffsetDateTime.now(ZoneOffset.UTC).plusDays(1);
+        for (int i = 0; i < TOKEN_COUNT; i++) {
+            rows.add(new Object[]{"user" + (i % 1000), "access" + i, "refresh" + i, i == TOKEN_COUNT - 1, expiresAt});
+        }
+        jdbcTemplate.batchUpdate("insert into tokens "
+                + "(username, access_token, refresh_token, is_valid, access_expires_at) values (?, ?, ?, ?, ?)", rows);
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldFindActiveTokenWithoutLoadingWholeTable() {
+        seedTokens();
+
+        Optional<Token> result = tokenRepository.findFirstByUsernameAndIsValidTrueAndAccessExpiresAtAfterOrderByIdDesc("user999", Instant.now());
+
+        assertTrue(result.isPresent());
+        assertEquals("access" + (TOKEN_COUNT - 1), result.get().getAccessToken());
+        assertEquals(1, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void shouldFindTokenByAccessTokenHash() {
+        Token token = new Token();
+        token.setUsername("digestuser");
+        token.setAccessToken("digest-access");
+        token.setAccessTokenHash(TokenDigest.sha256("digest-access"));
+        token.setRefreshToken("digest-refresh");
+        token.setRefreshTokenHash(TokenDigest.sha256("digest-refresh"));
+        token.setValid(true);
+        tokenRepository.saveAndFlush(token);
+        entityManager.clear();
+
+        assertTrue(tokenRepository.findByAccessTokenHash(TokenDigest.sha256("digest-access")).isPresent());
+        assertTrue(tokenRepository.findByRefreshTokenHash(TokenDigest.sha256("digest-refresh")).isPresent());
+        assertTrue(tokenRepository.findByAccessTokenHash(TokenDigest.sha256("digest-refresh")).isEmpty());
+    }
+
+    @Test
+    void shouldReturnEmptyWhenUserHasNoActiveToken() {
+        seedTokens();
+
+        Optional<Token> result = tokenRepository.findFirstByUsernameAndIsValidTrueAndAccessExpiresAtAfterOrderByIdDesc("user1", Instant.now());
+
+        assertTrue(result.isEmpty());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void shouldNotReturnExpiredActiveToken() {
+        Instant now = Instant.now();
+        tokenRepository.saveAndFlush(token("expired", now.minusSeconds(1), now.plus(Duration.ofDays(30)), null));
+
+        assertTrue(tokenRepository.findFirstByUsernameAndIsValidTrueAndAccessExpiresAtAfterOrderByIdDesc("purgeuser", now).isEmpty());
+    }
+
+    @Test
+    void shouldDeleteExpiredAndLongInvalidatedTokensInBatches() {
+        Instant now = Instant.now();
+        Instant invalidatedBefore = now.minus(Duration.ofHours(1));
+        tokenRepository.save(token("refresh-expired-1", now.minusSeconds(120), now.minusSeconds(60), null));
+        tokenRepository.save(token("refresh-expired-2", now.minusSeconds(120), now.minusSeconds(60), null));
+        tokenRepository.save(token("invalidated-long-ago", now.minusSeconds(60), now.plus(Duration.ofDays(29)),
+                now.minus(Duration.ofHours(2))));
+        tokenRepository.save(token("invalidated-recently", now.minusSeconds(60), now.plus(Duration.ofDays(29)),
+                now.minus(Duration.ofMinutes(5))));
+        tokenRepository.save(token("invalidated-still-usable", now.plusSeconds(60), now.plus(Duration.ofDays(29)),
+                now.minus(Duration.ofHours(2))));
+        tokenRepository.save(token("active", now.plusSeconds(60), now.plus(Duration.ofDays(30)), null));
+        tokenRepository.flush();
+
+        assertEquals(2, tokenRepository.deleteExpired(now, invalidatedBefore, 2));
+        assertEquals(1, tokenRepository.deleteExpired(now, invalidatedBefore, 2));
+        assertEquals(0, tokenRepository.deleteExpired(now, invalidatedBefore, 2));
+
+        entityManager.clear();
+        assertTrue(tokenRepository.findByAccessTokenHash(TokenDigest.sha256("invalidated-recently")).isPresent());
+        assertTrue(tokenRepository.findByAccessTokenHash(TokenDigest.sha256("invalidated-still-usable")).isPresent());
+        assertTrue(tokenRepository.findByAccessTokenHash(TokenDigest.sha256("active")).isPresent());
+        assertEquals(3, tokenRepository.count());
+    }
+
+    @Test
+    void shouldFindValidTokensByHashesInOneQuery() {
+        Instant now = Instant.now();
+        tokenRepository.save(token("first", now.plusSeconds(60), now.plus(Duration.ofDays(30)), null));
+        tokenRepository.save(token("second", now.plusSeconds(60), now.plus(Duration.ofDays(30)), null));
+        tokenRepository.save(token("logged-out", now.plusSeconds(60), now.plus(Duration.ofDays(30)), now));
+        tokenRepository.flush();
+
+        List<TokenHashView> result = tokenRepository.findByAccessTokenHashInAndIsValidTrue(List.of(
+                TokenDigest.sha256("first"), TokenDigest.sha256("second"),
+                TokenDigest.sha256("logged-out"), TokenDigest.sha256("unknown")));
+
+        assertEquals(2, result.size());
+    }
+
+    @Test
+    void shouldRotateRefreshTokenOnlyOnce() {
+        Instant now = Instant.now();
+        tokenRepository.save(token("first", now.plusSeconds(60), now.plus(Duration.ofDays(30)), null));
+        tokenRepository.flush();
+        byte[] refreshTokenHash = TokenDigest.sha256("first-refresh");
+
+        Optional<TokenHashView> rotated = tokenRepository.rotate(refreshTokenHash,
+                token("second", now.plusSeconds(60), now.plus(Duration.ofDays(30)), null));
+        Optional<TokenHashView> reused = tokenRepository.rotate(refreshTokenHash,
+                token("third", now.plusSeconds(60), now.plus(Duration.ofDays(30)), null));
+
+        assertTrue(rotated.isPresent());
+        assertArrayEquals(TokenDigest.sha256("first"), rotated.get().getAccessTokenHash());
+        assertTrue(reused.isEmpty());
+        assertFalse(tokenRepository.findByRefreshTokenHash(refreshTokenHash).orElseThrow().isValid());
+        assertTrue(tokenRepository.findByAccessTokenHash(TokenDigest.sha256("second")).orElseThrow().isValid());
+        assertTrue(tokenRepository.findByAccessTokenHash(TokenDigest.sha256("third")).isEmpty());
+    }
+
+    @Test
+    void shouldEvictOldestSessionsBeyondLimit() {
+        Instant now = Instant.now();
+        for (String name : List.of("oldest", "older", "newer")) {
+            tokenRepository.save(token(name, now.plusSeconds(60), now.plus(Duration.ofDays(30)), null));
+        }
+        tokenRepository.flush();
+
+        List<TokenHashView> evicted = tokenRepository.saveSession(
+                token("newest", now.plusSeconds(60), now.plus(Duration.ofDays(30)), null), 2);
+
+        assertEquals(2, evicted.size());
+        assertArrayEquals(TokenDigest.sha256("older"), evicted.get(0).getAccessTokenHash());
+        assertArrayEquals(TokenDigest.sha256("oldest"), evicted.get(1).getAccessTokenHash());
+        assertEquals(2, tokenRepository.findByUsernameAndIsValidTrueOrderByIdDesc("purgeuser").size());
+        assertTrue(tokenRepository.findByAccessTokenHash(TokenDigest.sha256("newest")).orElseThrow().isValid());
+        assertNotNull(tokenRepository.findByAccessTokenHash(TokenDigest.sha256("oldest")).orElseThrow().getInvalidatedAt());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldKeepSessionLimitUnderConcurrentLogins() throws Exception {
+        jdbcTemplate.update("insert into users (username, password, role, enabled, failed_login_attempts) "
+                + "values (?, ?, ?, ?, ?)", "purgeuser", "password", "ROLE_USER", true, 0);
+        int logins = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(logins);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<List<TokenHashView>>> results = new ArrayList<>();
+            for (int i = 0; i < logins; i++) {
+                Token token = token("concurrent" + i, Instant.now().plusSeconds(60), Instant.now().plus(Duration.ofDays(30)), null);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return tokenRepository.saveSession(token, 1);
+                }));
+            }
+            start.countDown();
+            for (Future<List<TokenHashView>> result : results) {
+                result.get();
+            }
+
+            assertEquals(1, tokenRepository.findByUsernameAndIsValidTrueOrderByIdDesc("purgeuser").size());
+        } finally {
+            executor.shutdownNow();
+            jdbcTemplate.update("delete from tokens where username = ?", "purgeuser");
+            jdbcTemplate.update("delete from users where username = ?", "purgeuser");
+        }
+    }
+
+    @Test
+    void shouldInvalidateAllSessionsOfUser() {
+        Instant now = Instant.now();
+        tokenRepository.save(token("phone", now.plusSeconds(60), now.plus(Duration.ofDays(30)), null));
+        tokenRepository.save(token("laptop", now.plusSeconds(60), now.plus(Duration.ofDays(30)), null));
+        tokenRepository.save(token("logged-out", now.plusSeconds(60), now.plus(Duration.ofDays(30)), now));
+        tokenRepository.flush();
+
+        List<TokenHashView> invalidated = tokenRepository.invalidateSessions("purgeuser");
+
+        assertEquals(2, invalidated.size());
+        assertTrue(tokenRepository.findByUsernameAndIsValidTrueOrderByIdDesc("purgeuser").isEmpty());
+        assertTrue(tokenRepository.invalidateSessions("purgeuser").isEmpty());
+    }
+
+    private static Token token(String name, Instant accessExpiresAt, Instant refreshExpiresAt, Instant invalidatedAt) {
+        Token token = new Token();
+        token.setUsername("purgeuser");
+        token.setAccessToken(name);
+        token.setAccessTokenHash(TokenDigest.sha256(name));
+        token.setRefreshToken(name + "-refresh");
+        token.setRefreshTokenHash(TokenDigest.sha256(name + "-refresh"));
+        token.setValid(invalidatedAt == null);
+        token.setAccessExpiresAt(accessExpiresAt);
+        token.setRefreshExpiresAt(refreshExpiresAt);
+        token.setInvalidatedAt(invalidatedAt);
+        return token;
+    }
+}
@@ -0,0 +1,179 @@
+package com.jwt.repository;
+
+import com.jwt.entity.Token;
+import com.jwt.utils.TokenDigest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TokenWriteBehindBufferTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private TokenWriteBehindBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        buffer = new TokenWriteBehindBuffer(jdbcTemplate, true, 2, 10, Duration.ofHours(1), Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        buffer.shutdown();
+    }
+
+    @Test
+    void shouldServePendingTokensBeforeFlush() {
+        Token token = token("access", "refresh");
+
+        buffer.enqueue(token);
+
+        assertSame(token, buffer.findPendingByAccessHash(TokenDigest.sha256("access")).orElseThrow());
+        assertSame(token, buffer.findPendingActiveToken("testuser", Instant.now()).orElseThrow());
+        assertEquals(1, buffer.getQueueDepth());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldFlushPendingTokensInOneBatch() {
+        buffer.enqueue(token("access1", "refresh1"));
+        buffer.enqueue(token("access2", "refresh2"));
+
+        buffer.flush();
+
+        ArgumentCaptor<Collection<Token>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batch.capture(), eq(2), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(2, batch.getValue().size());
+        assertEquals(0, buffer.getQueueDepth());
+        assertEquals(2, buffer.getFlushedRows());
+        assertTrue(buffer.findPendingByAccessHash(TokenDigest.sha256("access1")).isEmpty());
+    }
+
+    @Test
+    void shouldInvalidatePendingTokenByRefreshHash() {
+        Token token = token("access", "refresh");
+        buffer.enqueue(token);
+
+        assertTrue(buffer.invalidatePending(TokenDigest.sha256("refresh")).isPresent());
+
+        assertFalse(token.isValid());
+        assertNotNull(token.getInvalidatedAt());
+        assertTrue(buffer.findPendingActiveToken("testuser", Instant.now()).isEmpty());
+    }
+
+    @Test
+    void shouldWriteSynchronouslyWhenQueueIsFull() {
+        buffer.enqueue(token("access1", "refresh1"));
+        buffer.enqueue(token("access2", "refresh2"));
+
+        buffer.enqueue(token("access3", "refresh3"));
+
+        assertEquals(1, buffer.getSynchronousWrites());
+        assertTrue(buffer.findPendingByAccessHash(TokenDigest.sha256("access3")).isEmpty());
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyCollection(), eq(1), any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void shouldDeadLetterRowsThatCanNeverBeStored() {
+        doAnswer(invocation -> {
+            Collection<Token> tokens = invocation.getArgument(1);
+            if (tokens.stream().anyMatch(token -> "access2".equals(token.getAccessToken()))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return new int[][]{};
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        buffer.enqueue(token("access1", "refresh1"));
+        buffer.enqueue(token("access2", "refresh2"));
+
+        buffer.flush();
+        buffer.flush();
+
+        assertEquals(1, buffer.getFlushedRows());
+        assertEquals(1, buffer.getDeadLetters());
+        assertTrue(buffer.findPendingByAccessHash(TokenDigest.sha256("access2")).isEmpty());
+        assertTrue(buffer.findPendingActiveToken("testuser", Instant.now()).isEmpty());
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void shouldRetryOnlyRowsThatWereNotCommitted() {
+        buffer.shutdown();
+        buffer = new TokenWriteBehindBuffer(jdbcTemplate, true, 2, 1, Duration.ofHours(1), Duration.ZERO);
+        List<String> written = new CopyOnWriteArrayList<>();
+        AtomicBoolean failed = new AtomicBoolean();
+        doAnswer(invocation -> {
+            Collection<Token> tokens = invocation.getArgument(1);
+            for (Token token : tokens) {
+                if ("access2".equals(token.getAccessToken()) && failed.compareAndSet(false, true)) {
+                    throw new QueryTimeoutException("connection lost");
+                }
+                written.add(token.getAccessToken());
+            }
+            return new int[][]{};
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        buffer.enqueue(token("access1", "refresh1"));
+        buffer.enqueue(token("access2", "refresh2"));
+
+        try {
+            buffer.flush();
+        } catch (QueryTimeoutException ignored) {
+        }
+        buffer.flush();
+
+        assertTrue(failed.get());
+        assertEquals(List.of("access1", "access2"), written);
+        assertEquals(2, buffer.getFlushedRows());
+        assertEquals(0, buffer.getDeadLetters());
+        assertTrue(buffer.findPendingActiveToken("testuser", Instant.now()).isEmpty());
+    }
+
+    @Test
+    void shouldExposeQueueDepthAndFlushLatency() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        buffer.bindTo(meterRegistry);
+        buffer.enqueue(token("access1", "refresh1"));
+
+        assertEquals(1, meterRegistry.get("jwt.token-store.write-behind.queue.depth").gauge().value());
+
+        buffer.flush();
+
+        assertEquals(0, meterRegistry.get("jwt.token-store.write-behind.queue.depth").gauge().value());
+        assertEquals(1, meterRegistry.get("jwt.token-store.write-behind.flush").functionTimer().count());
+        assertEquals(1, meterRegistry.get("jwt.token-store.write-behind.rows").tag("outcome", "flushed")
+                .functionCounter().count());
+    }
+
+    private static Token token(String accessToken, String refreshToken) {
+        Token token = new Token();
+        token.setUsername("testuser");
+        token.setAccessToken(accessToken);
+        token.setAccessTokenHash(TokenDigest.sha256(accessToken));
+        token.setRefreshToken(refreshToken);
+        token.setRefreshTokenHash(TokenDigest.sha256(refreshToken));
+        token.setValid(true);
+        token.setAccessExpiresAt(Instant.now().plusSeconds(60));
+        return token;
+    }
+}
@@ -0,0 +1,115 @@
+package com.jwt.repository;
+
+import com.jwt.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+class UserRepositoryTest {
+
+    private static final int THRESHOLD = 5;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("testuser");
+        user.setPassword("password");
+        user.setRole("ROLE_USER");
+        userRepository.saveAndFlush(user);
+    }
+
+    @Test
+    void shouldLockAccountOnSixthSingleFailure() {
+        for (int i = 0; i < THRESHOLD; i++) {
+            assertEquals(1, userRepository.recordFailedLogins("testuser", 1, THRESHOLD));
+        }
+        User user = userRepository.findByUsername("testuser");
+        assertEquals(THRESHOLD, user.getFailedLoginAttempts());
+        assertTrue(user.isAccountNonLocked());
+
+        userRepository.recordFailedLogins("testuser", 1, THRESHOLD);
+
+        user = userRepository.findByUsername("testuser");
+        assertEquals(THRESHOLD, user.getFailedLoginAttempts());
+        assertFalse(user.isAccountNonLocked());
+    }
+
+    @Test
+    void shouldApplyBatchedFailuresWithSameThreshold() {
+        userRepository.recordFailedLogins("testuser", 3, THRESHOLD);
+        userRepository.recordFailedLogins("testuser", 2, THRESHOLD);
+        assertTrue(userRepository.findByUsername("testuser").isAccountNonLocked());
+
+        userRepository.recordFailedLogins("testuser", 4, THRESHOLD);
+
+        User user = userRepository.findByUsername("testuser");
+        assertEquals(THRESHOLD, user.getFailedLoginAttempts());
+        assertFalse(user.isAccountNonLocked());
+    }
+
+    @Test
+    void shouldDetectLockoutOnlyOnce() {
+        assertFalse(userRepository.recordFailedLoginsAndDetectLockout("testuser", THRESHOLD, THRESHOLD));
+        assertTrue(userRepository.findByUsername("testuser").isAccountNonLocked());
+
+        assertTrue(userRepository.recordFailedLoginsAndDetectLockout("testuser", 1, THRESHOLD));
+        assertFalse(userRepository.recordFailedLoginsAndDetectLockout("testuser", 1, THRESHOLD));
+
+        User user = userRepository.findByUsername("testuser");
+        assertEquals(THRESHOLD, user.getFailedLoginAttempts());
+        assertFalse(user.isAccountNonLocked());
+        assertFalse(userRepository.recordFailedLoginsAndDetectLockout("unknown", 1, THRESHOLD));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldDetectExactlyOneLockoutUnderConcurrentFailures() throws Exception {
+        int failures = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(failures);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < failures; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return userRepository.recordFailedLoginsAndDetectLockout("testuser", 1, THRESHOLD);
+                }));
+            }
+            start.countDown();
+            int lockouts = 0;
+            for (Future<Boolean> result : results) {
+                lockouts += result.get() ? 1 : 0;
+            }
+
+            assertEquals(1, lockouts);
+            assertFalse(userRepository.findByUsername("testuser").isAccountNonLocked());
+        } finally {
+            executor.shutdownNow();
+            userRepository.delete(userRepository.findByUsername("testuser"));
+        }
+    }
+
+    @Test
+    void shouldIgnoreUnknownUser() {
+        assertEquals(0, userRepository.recordFailedLogins("unknown", 1, THRESHOLD));
+    }
+}
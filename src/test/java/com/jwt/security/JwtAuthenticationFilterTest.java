@@ -0,0 +1,128 @@
+package com.jwt.security;
+
+import com.jwt.entity.User;
+import com.jwt.repository.JpaSessionStore;
+import com.jwt.repository.TokenRepository;
+import com.jwt.repository.TokenWriteBehindBuffer;
+import com.jwt.utils.TokenDigest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private JwtService jwtService;
+    private RevocationList revocationList;
+    private UserDetailsService userDetailsService;
+    private JwtAuthenticationFilter filter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        TokenRepository tokenRepository = mock(TokenRepository.class);
+        revocationList = new RevocationList(tokenRepository,
+                new RevocationJournal(false, "", DataSize.ofMegabytes(1)), 1000, 100);
+        jwtService = new JwtService(
+                new JpaSessionStore(tokenRepository,
+                        new TokenWriteBehindBuffer(null, false, 1, 1, Duration.ofSeconds(1), Duration.ZERO)),
+                new VerifiedTokenCache(false, 0), revocationList,
+                new SigningKeyRing("", "", "PKCS12", "", "HS256"), new SimpleMeterRegistry());
+        userDetailsService = mock(UserDetailsService.class);
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtService", jwtService);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+
+        user = new User();
+        user.setId(7L);
+        user.setUsername("testuser");
+        user.setRole("ROLE_USER");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldAuthenticateFromClaimsWithoutLoadingUser() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + jwtService.generateAccessToken(user));
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals(new JwtPrincipal(7L, "testuser"), authentication.getPrincipal());
+        assertEquals(AuthorityUtils.createAuthorityList("ROLE_USER"), authentication.getAuthorities());
+        assertNotNull(request.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void shouldLoadUserWhenLookupModeIsEnabled() throws Exception {
+        ReflectionTestUtils.setField(filter, "loadUser", true);
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(user);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + jwtService.generateAccessToken(user));
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertSame(user, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verify(userDetailsService, times(1)).loadUserByUsername("testuser");
+    }
+
+    @Test
+    void shouldRejectRevokedToken() throws Exception {
+        String token = jwtService.generateAccessToken(user);
+        revocationList.revoke(TokenDigest.sha256(token), Instant.now().plusSeconds(60));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals(401, response.getStatus());
+        assertEquals("Token has been revoked", response.getContentAsString());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void shouldRejectRefreshTokenUsedAsBearer() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + jwtService.generateRefreshToken("testuser"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals(401, response.getStatus());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void shouldRejectInvalidToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer invalidToken");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals(401, response.getStatus());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+}
@@ -0,0 +1,140 @@
+package com.jwt.security;
+
+import com.jwt.entity.User;
+import com.jwt.repository.JpaSessionStore;
+import com.jwt.repository.TokenRepository;
+import com.jwt.repository.TokenWriteBehindBuffer;
+import com.jwt.utils.TokenDigest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationWebFilterTest {
+
+    private JwtService jwtService;
+    private RevocationList revocationList;
+    private ReactiveUserDetailsService userDetailsService;
+    private User user;
+    private AtomicReference<Authentication> authentication;
+    private WebFilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        TokenRepository tokenRepository = mock(TokenRepository.class);
+        revocationList = new RevocationList(tokenRepository,
+                new RevocationJournal(false, "", DataSize.ofMegabytes(1)), 1000, 100);
+        jwtService = new JwtService(
+                new JpaSessionStore(tokenRepository,
+                        new TokenWriteBehindBuffer(null, false, 1, 1, Duration.ofSeconds(1), Duration.ZERO)),
+                new VerifiedTokenCache(false, 0), revocationList,
+                new SigningKeyRing("", "", "PKCS12", "", "HS256"), new SimpleMeterRegistry());
+        userDetailsService = mock(ReactiveUserDetailsService.class);
+
+        user = new User();
+        user.setId(7L);
+        user.setUsername("testuser");
+        user.setRole("ROLE_USER");
+
+        authentication = new AtomicReference<>();
+        chain = exchange -> ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .doOnNext(authentication::set)
+                .then();
+    }
+
+    @Test
+    void shouldAuthenticateFromClaimsWithoutLoadingUser() {
+        MockServerWebExchange exchange = exchange(jwtService.generateAccessToken(user));
+
+        StepVerifier.create(filter(false).filter(exchange, chain)).verifyComplete();
+
+        assertEquals(new JwtPrincipal(7L, "testuser"), authentication.get().getPrincipal());
+        assertEquals(AuthorityUtils.createAuthorityList("ROLE_USER"), authentication.get().getAuthorities());
+        assertNotNull(exchange.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void shouldLoadUserWhenLookupModeIsEnabled() {
+        when(userDetailsService.findByUsername("testuser")).thenReturn(Mono.just(user));
+
+        StepVerifier.create(filter(true).filter(exchange(jwtService.generateAccessToken(user)), chain))
+                .verifyComplete();
+
+        assertSame(user, authentication.get().getPrincipal());
+    }
+
+    @Test
+    void shouldRejectTokenOfDeletedUser() {
+        when(userDetailsService.findByUsername("testuser")).thenReturn(Mono.empty());
+        MockServerWebExchange exchange = exchange(jwtService.generateAccessToken(user));
+
+        StepVerifier.create(filter(true).filter(exchange, chain)).verifyComplete();
+
+        assertEquals(401, exchange.getResponse().getStatusCode().value());
+        assertNull(authentication.get());
+    }
+
+    @Test
+    void shouldRejectRevokedToken() {
+        String token = jwtService.generateAccessToken(user);
+        revocationList.revoke(TokenDigest.sha256(token), Instant.now().plusSeconds(60));
+        MockServerWebExchange exchange = exchange(token);
+
+        StepVerifier.create(filter(false).filter(exchange, chain)).verifyComplete();
+
+        assertEquals(401, exchange.getResponse().getStatusCode().value());
+        StepVerifier.create(exchange.getResponse().getBodyAsString())
+                .expectNext("Token has been revoked")
+                .verifyComplete();
+        assertNull(authentication.get());
+    }
+
+    @Test
+    void shouldRejectRefreshTokenUsedAsBearer() {
+        MockServerWebExchange exchange = exchange(jwtService.generateRefreshToken("testuser"));
+
+        StepVerifier.create(filter(false).filter(exchange, chain)).verifyComplete();
+
+        assertEquals(401, exchange.getResponse().getStatusCode().value());
+        assertNull(authentication.get());
+    }
+
+    @Test
+    void shouldRejectInvalidToken() {
+        MockServerWebExchange exchange = exchange("invalidToken");
+
+        StepVerifier.create(filter(false).filter(exchange, chain)).verifyComplete();
+
+        assertEquals(401, exchange.getResponse().getStatusCode().value());
+        assertNull(authentication.get());
+    }
+
+    private JwtAuthenticationWebFilter filter(boolean loadUser) {
+        return new JwtAuthenticationWebFilter(jwtService, userDetailsService, loadUser);
+    }
+
+    private static MockServerWebExchange exchange(String token) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/endpoint/for-user")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+}
@@ -1,18 +1,31 @@
 package com.jwt.security;
 
 import com.jwt.entity.Token;
+import com.jwt.entity.User;
+import com.jwt.repository.JpaSessionStore;
+import com.jwt.repository.TokenHashView;
 import com.jwt.repository.TokenRepository;
+import com.jwt.repository.TokenWriteBehindBuffer;
 import com.jwt.utils.MyKeyGenerator;
+import com.jwt.utils.TokenDigest;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.Mockito.*;
 
 class JwtServiceTest {
@@ -23,7 +36,23 @@ class JwtServiceTest {
     @Mock
     private MyKeyGenerator myKeyGenerator;
 
-    @InjectMocks
+    @Spy
+    private VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(true, 100);
+
+    @Spy
+    private RevocationList revocationList = new RevocationList(mock(TokenRepository.class),
+            new RevocationJournal(false, "", DataSize.ofMegabytes(1)), 1000, 100);
+
+    @Spy
+    private TokenWriteBehindBuffer writeBehindBuffer =
+            new TokenWriteBehindBuffer(null, false, 1, 1, Duration.ofSeconds(1), Duration.ZERO);
+
+    @Spy
+    private SigningKeyRing signingKeyRing = new SigningKeyRing("", "", "PKCS12", "", "HS256");
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private JwtService jwtService;
 
     private Token token;
@@ -35,6 +64,8 @@ class JwtServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        jwtService = new JwtService(new JpaSessionStore(tokenRepository, writeBehindBuffer), verifiedTokenCache,
+                revocationList, signingKeyRing, meterRegistry);
 
         token = new Token();
         token.setUsername(username);
@@ -50,6 +81,18 @@ class JwtServiceTest {
         assertNotNull(result);
     }
 
+    @Test
+    void shouldTimeTokenGenerationAndParsing() {
+        String token = jwtService.generateAccessToken(username);
+        jwtService.extractUserName(token);
+        jwtService.extractUserName(token);
+        assertThrows(JwtException.class, () -> jwtService.extractUserName("invalidToken"));
+
+        assertEquals(1, meterRegistry.get("jwt.tokens.generate").tag("type", "access").timer().count());
+        assertEquals(1, meterRegistry.get("jwt.tokens.parse").tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("jwt.tokens.parse").tag("outcome", "failure").timer().count());
+    }
+
     @Test
     void shouldReturnRefreshToken() {
         String result = jwtService.generateRefreshToken(username);
@@ -65,6 +108,62 @@ class JwtServiceTest {
         assertEquals(username, result);
     }
 
+    @Test
+    void shouldReturnVerifiedTokenWithClaims() {
+        String token = jwtService.generateAccessToken(username);
+        VerifiedToken result = jwtService.verify(token);
+
+        assertEquals(username, result.getSubject());
+        assertNotNull(result.getId());
+        assertNotNull(result.getIssuedAt());
+        assertTrue(result.getExpiration().isAfter(result.getIssuedAt()));
+    }
+
+    @Test
+    void shouldEmbedAuthoritiesAndUserIdInAccessToken() {
+        User user = new User();
+        user.setId(42L);
+        user.setUsername(username);
+        user.setRole("ROLE_ADMIN");
+
+        VerifiedToken result = jwtService.verify(jwtService.generateAccessToken(user));
+
+        assertEquals(username, result.getSubject());
+        assertEquals(List.of("ROLE_ADMIN"), result.getAuthorities());
+        assertEquals(42L, result.getUserId());
+    }
+
+    @Test
+    void shouldServeRepeatedVerificationFromCache() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        verifiedTokenCache.bindTo(meterRegistry);
+        String token = jwtService.generateAccessToken(username);
+
+        VerifiedToken first = jwtService.verify(token);
+        VerifiedToken second = jwtService.verify(token);
+
+        assertSame(first, second);
+        assertEquals(1, verifiedTokenCache.stats().hitCount());
+        assertEquals(1, verifiedTokenCache.stats().missCount());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "verified-tokens").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void shouldEvictCachedTokenOnInvalidation() {
+        String token = jwtService.generateAccessToken(username);
+        this.token.setAccessToken(token);
+        when(tokenRepository.findByAccessTokenHash(aryEq(TokenDigest.sha256(token)))).thenReturn(Optional.of(this.token));
+
+        VerifiedToken first = jwtService.verify(token);
+        jwtService.invalidateToken(token);
+        VerifiedToken second = jwtService.verify(token);
+
+        verify(verifiedTokenCache, times(1)).evict(token);
+        assertNotSame(first, second);
+        assertEquals(2, verifiedTokenCache.stats().missCount());
+    }
+
     @Test
     void shouldThrowExceptionForInvalidToken() {
         assertThrows(RuntimeException.class, () -> jwtService.extractUserName("invalidToken"));
@@ -74,12 +173,14 @@ class JwtServiceTest {
     void shouldSaveTokenSuccessfully() {
         jwtService.saveToken(username, accessToken, refreshToken);
 
-        verify(tokenRepository, times(1)).save(any(Token.class));
+        verify(tokenRepository, times(1)).save(argThat(saved ->
+                Arrays.equals(TokenDigest.sha256(accessToken), saved.getAccessTokenHash())
+                        && Arrays.equals(TokenDigest.sha256(refreshToken), saved.getRefreshTokenHash())));
     }
 
     @Test
     void shouldInvalidateAccessToken() {
-        when(tokenRepository.findByAccessToken(accessToken)).thenReturn(Optional.of(token));
+        when(tokenRepository.findByAccessTokenHash(aryEq(TokenDigest.sha256(accessToken)))).thenReturn(Optional.of(token));
 
         jwtService.invalidateToken(accessToken);
 
@@ -87,10 +188,31 @@ class JwtServiceTest {
         assertFalse(token.isValid());
     }
 
+    @Test
+    void shouldRevokeAccessTokenInMemoryOnInvalidation() {
+        token.setAccessTokenHash(TokenDigest.sha256(accessToken));
+        when(tokenRepository.findByAccessTokenHash(aryEq(TokenDigest.sha256(accessToken)))).thenReturn(Optional.of(token));
+
+        assertFalse(jwtService.isRevoked(accessToken));
+        jwtService.invalidateToken(accessToken);
+
+        assertTrue(jwtService.isRevoked(accessToken));
+    }
+
+    @Test
+    void shouldRevokePairedAccessTokenWhenRefreshTokenIsInvalidated() {
+        token.setAccessTokenHash(TokenDigest.sha256(accessToken));
+        when(tokenRepository.findByRefreshTokenHash(aryEq(TokenDigest.sha256(refreshToken)))).thenReturn(Optional.of(token));
+
+        jwtService.invalidateToken(refreshToken);
+
+        assertTrue(jwtService.isRevoked(accessToken));
+    }
+
     @Test
     void shouldInvalidateRefreshTokenIfAccessTokenNotFound() {
-        when(tokenRepository.findByAccessToken(accessToken)).thenReturn(Optional.empty());
-        when(tokenRepository.findByRefreshToken(refreshToken)).thenReturn(Optional.of(token));
+        when(tokenRepository.findByAccessTokenHash(aryEq(TokenDigest.sha256(accessToken)))).thenReturn(Optional.empty());
+        when(tokenRepository.findByRefreshTokenHash(aryEq(TokenDigest.sha256(refreshToken)))).thenReturn(Optional.of(token));
 
         jwtService.invalidateToken(refreshToken);
 
@@ -100,17 +222,73 @@ class JwtServiceTest {
 
     @Test
     void shouldDoNothingIfTokenNotFound() {
-        when(tokenRepository.findByAccessToken(accessToken)).thenReturn(Optional.empty());
-        when(tokenRepository.findByRefreshToken(refreshToken)).thenReturn(Optional.empty());
+        when(tokenRepository.findByAccessTokenHash(aryEq(TokenDigest.sha256(accessToken)))).thenReturn(Optional.empty());
+        when(tokenRepository.findByRefreshTokenHash(aryEq(TokenDigest.sha256(refreshToken)))).thenReturn(Optional.empty());
 
         jwtService.invalidateToken(accessToken);
 
         verify(tokenRepository, times(0)).save(any(Token.class));
     }
 
+    @Test
+    void shouldRotateRefreshTokenAndRevokePreviousAccessToken() {
+        User user = new User();
+        user.setUsername(username);
+        user.setRole("ROLE_USER");
+        TokenHashView previous = mock(TokenHashView.class);
+        when(previous.getAccessTokenHash()).thenReturn(TokenDigest.sha256(accessToken));
+        when(tokenRepository.rotate(aryEq(TokenDigest.sha256(refreshToken)), any(Token.class)))
+                .thenReturn(Optional.of(previous));
+
+        Optional<Token> result = jwtService.rotateRefreshToken(refreshToken, user);
+
+        assertTrue(result.isPresent());
+        assertTrue(result.get().isValid());
+        assertArrayEquals(TokenDigest.sha256(result.get().getRefreshToken()), result.get().getRefreshTokenHash());
+        assertTrue(jwtService.isRevoked(accessToken));
+        verify(tokenRepository, never()).save(any(Token.class));
+    }
+
+    @Test
+    void shouldNotRotateAlreadyUsedRefreshToken() {
+        User user = new User();
+        user.setUsername(username);
+        user.setRole("ROLE_USER");
+        when(tokenRepository.rotate(aryEq(TokenDigest.sha256(refreshToken)), any(Token.class)))
+                .thenReturn(Optional.empty());
+
+        assertTrue(jwtService.rotateRefreshToken(refreshToken, user).isEmpty());
+        verify(revocationList, never()).revoke(anyLong(), any());
+    }
+
+    @Test
+    void shouldRevokeSessionsEvictedByLimit() {
+        ReflectionTestUtils.setField(jwtService, "maxSessionsPerUser", 2);
+        TokenHashView evicted = mock(TokenHashView.class);
+        when(evicted.getAccessTokenHash()).thenReturn(TokenDigest.sha256(accessToken));
+        when(tokenRepository.saveSession(any(Token.class), eq(2))).thenReturn(List.of(evicted));
+
+        jwtService.saveToken(username, "newAccessToken", "newRefreshToken");
+
+        assertTrue(jwtService.isRevoked(accessToken));
+        assertFalse(jwtService.isRevoked("newAccessToken"));
+        verify(tokenRepository, never()).save(any(Token.class));
+    }
+
+    @Test
+    void shouldInvalidateAllTokensOfUser() {
+        TokenHashView session = mock(TokenHashView.class);
+        when(session.getAccessTokenHash()).thenReturn(TokenDigest.sha256(accessToken));
+        when(tokenRepository.invalidateSessions(username)).thenReturn(List.of(session));
+
+        assertEquals(1, jwtService.invalidateAllTokens(username));
+        assertTrue(jwtService.isRevoked(accessToken));
+        verify(tokenRepository, never()).findByAccessTokenHash(any());
+    }
+
     @Test
     void shouldReturnTokenForValidAccessToken() {
-        when(tokenRepository.findByAccessToken(accessToken)).thenReturn(Optional.of(token));
+        when(tokenRepository.findByAccessTokenHash(aryEq(TokenDigest.sha256(accessToken)))).thenReturn(Optional.of(token));
 
         Token result = jwtService.getAccessToken(accessToken);
 
@@ -120,7 +298,7 @@ class JwtServiceTest {
 
     @Test
     void shouldReturnTokenForBearerPrefix() {
-        when(tokenRepository.findByAccessToken(accessToken)).thenReturn(Optional.of(token));
+        when(tokenRepository.findByAccessTokenHash(aryEq(TokenDigest.sha256(accessToken)))).thenReturn(Optional.of(token));
 
         Token result = jwtService.getAccessToken("Bearer " + accessToken);
 
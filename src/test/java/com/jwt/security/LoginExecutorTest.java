@@ -0,0 +1,46 @@
+package com.jwt.security;
+
+import com.jwt.exception.LoginRejectedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginExecutorTest {
+
+    private LoginExecutor loginExecutor;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        loginExecutor = new LoginExecutor(1, 1, false);
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        loginExecutor.shutdown();
+    }
+
+    @Test
+    void shouldRejectLoginsBeyondPoolAndQueue() {
+        loginExecutor.submit(this::block);
+        loginExecutor.submit(this::block);
+
+        assertThrows(LoginRejectedException.class, () -> loginExecutor.submit(this::block));
+        assertEquals(1, loginExecutor.getRejected());
+    }
+
+    private Void block() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
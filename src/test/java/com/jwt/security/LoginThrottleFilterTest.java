@@ -0,0 +1,153 @@
+package com.jwt.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginThrottleFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new LoginThrottleFilter(new ObjectMapper(), meterRegistry, true,
+                3, Duration.ofMinutes(1), 2, Duration.ofMinutes(1), 1000, DataSize.ofBytes(256));
+    }
+
+    @Test
+    void shouldRejectClientIpAfterBurst() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, login("10.0.0.1", "user" + i).getStatus());
+        }
+
+        MockHttpServletResponse response = login("10.0.0.1", "user3");
+
+        assertEquals(429, response.getStatus());
+        assertNotNull(response.getHeader("Retry-After"));
+        assertEquals(200, login("10.0.0.2", "user3").getStatus());
+        assertEquals(1, meterRegistry.get("jwt.logins.throttled").tag("key", "ip").counter().count());
+    }
+
+    @Test
+    void shouldRejectUsernameAcrossClientIps() throws Exception {
+        assertEquals(200, login("10.0.0.1", "testuser").getStatus());
+        assertEquals(200, login("10.0.0.2", "testuser").getStatus());
+
+        assertEquals(429, login("10.0.0.3", "testuser").getStatus());
+        assertEquals(200, login("10.0.0.3", "otheruser").getStatus());
+        assertEquals(1, meterRegistry.get("jwt.logins.throttled").tag("key", "username").counter().count());
+    }
+
+    @Test
+    void shouldPassRequestBodyDownstream() throws Exception {
+        MockHttpServletRequest request = request("10.0.0.1", "testuser");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertEquals(new String(request.getContentAsByteArray(), StandardCharsets.UTF_8),
+                new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldRejectOversizedBodies() throws Exception {
+        MockHttpServletRequest declared = request("10.0.0.1", "x".repeat(300));
+        MockHttpServletRequest chunked = new MockHttpServletRequest("POST", "/api/auth/login") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunked.setServletPath("/api/auth/login");
+        chunked.setRemoteAddr("10.0.0.2");
+        chunked.setContent(declared.getContentAsByteArray());
+        MockFilterChain chain = new MockFilterChain();
+
+        for (MockHttpServletRequest request : new MockHttpServletRequest[]{declared, chunked}) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, chain);
+            assertEquals(413, response.getStatus());
+        }
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void shouldNotifyReadListenerOfCachedBody() throws Exception {
+        MockHttpServletRequest request = request("10.0.0.1", "testuser");
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        ServletInputStream in = chain.getRequest().getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        boolean[] allDataRead = new boolean[1];
+
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                while (in.isReady() && !in.isFinished()) {
+                    read.write(in.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allDataRead[0] = true;
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                fail(t);
+            }
+        });
+
+        assertTrue(allDataRead[0]);
+        assertArrayEquals(request.getContentAsByteArray(), read.toByteArray());
+    }
+
+    @Test
+    void shouldNotThrottleOtherEndpoints() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = request("10.0.0.1", "testuser");
+            request.setServletPath("/api/auth/refresh");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            filter.doFilter(request, response, new MockFilterChain());
+
+            assertEquals(200, response.getStatus());
+        }
+    }
+
+    private MockHttpServletResponse login(String ip, String username) throws Exception {
+        MockHttpServletRequest request = request(ip, username);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        assertEquals(response.getStatus() == 200, chain.getRequest() != null);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String ip, String username) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setServletPath("/api/auth/login");
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(("{\"username\":\"" + username + "\",\"password\":\"secret\"}").getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
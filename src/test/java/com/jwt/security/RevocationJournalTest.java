@@ -0,0 +1,174 @@
+package com.jwt.security;
+
+import com.jwt.repository.TokenRepository;
+import com.jwt.utils.TokenDigest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class RevocationJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private Path path;
+    private RevocationJournal journal;
+    private long expiresAt;
+
+    @BeforeEach
+    void setUp() {
+        path = dir.resolve("revocations.journal");
+        journal = open();
+        expiresAt = Instant.now().plusSeconds(60).toEpochMilli();
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.close();
+    }
+
+    @Test
+    void shouldReplayRecordsAfterRestart() {
+        journal.append(1L, expiresAt);
+        journal.append(2L, expiresAt + 1);
+        journal.close();
+
+        journal = open();
+
+        assertEquals(Map.of(1L, expiresAt, 2L, expiresAt + 1), replay(journal));
+    }
+
+    @Test
+    void shouldSkipExpiredRecordsOnReplay() {
+        journal.append(1L, Instant.now().minusSeconds(1).toEpochMilli());
+        journal.append(2L, expiresAt);
+
+        assertEquals(Map.of(2L, expiresAt), replay(journal));
+    }
+
+    @Test
+    void shouldDropTornRecordAfterTruncationMidRecord() throws IOException {
+        journal.append(1L, expiresAt);
+        journal.append(2L, expiresAt);
+        journal.append(3L, expiresAt);
+        journal.close();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(16 + 2 * 16 + 12);
+        }
+        journal = open();
+
+        assertEquals(2, journal.size());
+        assertEquals(Map.of(1L, expiresAt, 2L, expiresAt), replay(journal));
+
+        journal.append(4L, expiresAt);
+        journal.close();
+        journal = open();
+
+        assertEquals(Map.of(1L, expiresAt, 2L, expiresAt, 4L, expiresAt), replay(journal));
+    }
+
+    @Test
+    void shouldCompactExpiredRecords() {
+        journal.append(1L, Instant.now().minusSeconds(1).toEpochMilli());
+        journal.append(2L, expiresAt);
+        journal.append(3L, Instant.now().minusSeconds(1).toEpochMilli());
+        journal.append(4L, expiresAt);
+
+        journal.compact();
+        journal.close();
+        journal = open();
+
+        assertEquals(2, journal.size());
+        assertEquals(Map.of(2L, expiresAt, 4L, expiresAt), replay(journal));
+    }
+
+    @Test
+    void shouldCompactWhenFull() {
+        journal.close();
+        journal = new RevocationJournal(true, path.toString(), DataSize.ofBytes(16 + 2 * 16));
+        journal.append(1L, Instant.now().minusSeconds(1).toEpochMilli());
+        journal.append(2L, expiresAt);
+
+        journal.append(3L, expiresAt);
+        journal.append(4L, expiresAt);
+
+        assertEquals(Map.of(2L, expiresAt, 3L, expiresAt), replay(journal));
+    }
+
+    @Test
+    void shouldKeepLiveRecordsAfterCrashDuringCompaction() throws IOException {
+        journal.append(1L, Instant.now().minusSeconds(1).toEpochMilli());
+        journal.append(2L, expiresAt);
+        journal.append(3L, expiresAt);
+        journal.close();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, 2L), 16);
+        }
+        journal = open();
+
+        assertEquals(Map.of(2L, expiresAt, 3L, expiresAt), replay(journal));
+
+        journal.compact();
+        journal.close();
+        journal = open();
+
+        assertEquals(2, journal.size());
+        assertEquals(Map.of(2L, expiresAt, 3L, expiresAt), replay(journal));
+    }
+
+    @Test
+    void shouldRestoreRevocationListWithoutWaitingForDatabaseRebuild() {
+        TokenRepository tokenRepository = mock(TokenRepository.class);
+        new RevocationList(tokenRepository, journal, 1000, 100)
+                .revoke(TokenDigest.sha256("revoked"), Instant.ofEpochMilli(expiresAt));
+        journal.close();
+        CountDownLatch databaseScan = new CountDownLatch(1);
+        when(tokenRepository.findByIsValidFalseAndAccessTokenHashIsNotNullAndIdGreaterThanOrderByIdAsc(
+                anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            databaseScan.await();
+            return List.of();
+        });
+
+        journal = open();
+        RevocationList restarted = new RevocationList(tokenRepository, journal, 1000, 100);
+        restarted.rebuild();
+
+        assertTrue(restarted.isRevoked(TokenDigest.sha256("revoked")));
+        assertEquals(1, journal.size());
+        databaseScan.countDown();
+        verify(tokenRepository, timeout(1000)).findByIsValidFalseAndAccessTokenHashIsNotNullAndIdGreaterThanOrderByIdAsc(
+                anyLong(), any(Pageable.class));
+    }
+
+    private RevocationJournal open() {
+        return new RevocationJournal(true, path.toString(), DataSize.ofKilobytes(64));
+    }
+
+    private static Map<Long, Long> replay(RevocationJournal journal) {
+        Map<Long, Long> records = new HashMap<>();
+        int replayed = journal.replay(records::put);
+        assertEquals(records.size(), replayed);
+        return records;
+    }
+}
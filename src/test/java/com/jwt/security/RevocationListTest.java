@@ -0,0 +1,91 @@
+package com.jwt.security;
+
+import com.jwt.repository.TokenHashView;
+import com.jwt.repository.TokenRepository;
+import com.jwt.utils.TokenDigest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RevocationListTest {
+
+    @Mock
+    private TokenRepository tokenRepository;
+
+    private RevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        revocationList = new RevocationList(tokenRepository,
+                new RevocationJournal(false, "", DataSize.ofMegabytes(1)), 1000, 2);
+    }
+
+    @Test
+    void shouldReportRevokedTokens() {
+        byte[] revoked = TokenDigest.sha256("revoked");
+        revocationList.revoke(revoked, Instant.now().plusSeconds(60));
+
+        assertTrue(revocationList.isRevoked(revoked));
+        assertFalse(revocationList.isRevoked(TokenDigest.sha256("active")));
+    }
+
+    @Test
+    void shouldRebuildFromDatabaseInBatches() {
+        TokenHashView first = view(1L, "first");
+        TokenHashView second = view(2L, "second");
+        TokenHashView third = view(3L, "third");
+        when(tokenRepository.findByIsValidFalseAndAccessTokenHashIsNotNullAndIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(first, second));
+        when(tokenRepository.findByIsValidFalseAndAccessTokenHashIsNotNullAndIdGreaterThanOrderByIdAsc(eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(third));
+
+        revocationList.rebuild();
+
+        assertEquals(3, revocationList.size());
+        assertTrue(revocationList.isRevoked(TokenDigest.sha256("third")));
+    }
+
+    @Test
+    void shouldPickUpRevocationsMadeByOtherNodes() {
+        TokenHashView otherNode = view(4L, "other-node");
+        when(tokenRepository.findByInvalidatedAtAfterAndAccessTokenHashIsNotNull(any(Instant.class)))
+                .thenReturn(List.of(otherNode));
+
+        revocationList.sync();
+
+        assertTrue(revocationList.isRevoked(TokenDigest.sha256("other-node")));
+    }
+
+    @Test
+    void shouldPruneExpiredRevocations() {
+        byte[] expired = TokenDigest.sha256("expired");
+        byte[] live = TokenDigest.sha256("live");
+        revocationList.revoke(expired, Instant.now().minusSeconds(1));
+        revocationList.revoke(live, Instant.now().plusSeconds(60));
+
+        revocationList.prune();
+
+        assertFalse(revocationList.isRevoked(expired));
+        assertTrue(revocationList.isRevoked(live));
+        assertEquals(1, revocationList.size());
+    }
+
+    private static TokenHashView view(Long id, String token) {
+        TokenHashView view = mock(TokenHashView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getAccessTokenHash()).thenReturn(TokenDigest.sha256(token));
+        return view;
+    }
+}
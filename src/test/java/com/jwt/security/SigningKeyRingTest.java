@@ -0,0 +1,158 @@
+package com.jwt.security;
+
+import com.jwt.repository.JpaSessionStore;
+import com.jwt.repository.TokenRepository;
+import com.jwt.repository.TokenWriteBehindBuffer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.util.unit.DataSize;
+
+import javax.crypto.KeyGenerator;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class SigningKeyRingTest {
+
+    private static final String PASSWORD = "changeit";
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void shouldVerifyTokensIssuedByAnotherNodeSharingTheKeyStore() throws Exception {
+        KeyStore store = newKeyStore();
+        addKey(store, "key-1");
+        Path keyStore = write(store);
+        JwtService nodeA = jwtService(new SigningKeyRing(keyStore.toString(), PASSWORD, "PKCS12", "key-1", "HS256"));
+        JwtService nodeB = jwtService(new SigningKeyRing(keyStore.toString(), PASSWORD, "PKCS12", "key-1", "HS256"));
+
+        String token = nodeA.generateAccessToken("testuser");
+
+        assertEquals("key-1", keyId(token));
+        assertEquals("testuser", nodeB.extractUserName(token));
+    }
+
+    @Test
+    void shouldRotateToNewestKeyAndKeepVerifyingOldTokens() throws Exception {
+        KeyStore store = newKeyStore();
+        addKey(store, "key-1");
+        Path keyStore = write(store);
+        SigningKeyRing ring = new SigningKeyRing(keyStore.toString(), PASSWORD, "PKCS12", "", "HS256");
+        JwtService jwtService = jwtService(ring);
+        String oldToken = jwtService.generateAccessToken("testuser");
+
+        Thread.sleep(10);
+        addKey(store, "key-2");
+        write(store);
+        Files.setLastModifiedTime(keyStore, FileTime.from(Instant.now().plusSeconds(5)));
+        ring.reload();
+
+        assertEquals("key-2", ring.getActiveKeyId());
+        assertEquals("key-2", keyId(jwtService.generateAccessToken("testuser")));
+        assertEquals("testuser", jwtService.extractUserName(oldToken));
+    }
+
+    @Test
+    void shouldLoadKeyAddedOnAnotherNodeWhenKidIsUnknown() throws Exception {
+        KeyStore store = newKeyStore();
+        addKey(store, "key-1");
+        Path keyStore = write(store);
+        JwtService verifier = jwtService(new SigningKeyRing(keyStore.toString(), PASSWORD, "PKCS12", "key-1", "HS256"));
+
+        addKey(store, "key-2");
+        write(store);
+        Files.setLastModifiedTime(keyStore, FileTime.from(Instant.now().plusSeconds(5)));
+        JwtService issuer = jwtService(new SigningKeyRing(keyStore.toString(), PASSWORD, "PKCS12", "key-2", "HS256"));
+
+        assertEquals("testuser", verifier.extractUserName(issuer.generateAccessToken("testuser")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ES256", "EdDSA", "RS256"})
+    void shouldSignWithAsymmetricKeysAndPublishOnlyPublicKeys(String algorithm) {
+        SigningKeyRing ring = new SigningKeyRing("", "", "PKCS12", "", algorithm);
+        JwtService jwtService = jwtService(ring);
+
+        assertEquals("testuser", jwtService.extractUserName(jwtService.generateAccessToken("testuser")));
+        assertEquals(1, ring.getPublicKeys().getKeys().size());
+        Map<String, ?> jwk = ring.getPublicKeys().getKeys().get(0);
+        assertEquals(ring.getActiveKeyId(), jwk.get("kid"));
+        assertFalse(jwk.containsKey("d"));
+    }
+
+    @Test
+    void shouldNotPublishSecretKeys() {
+        SigningKeyRing ring = new SigningKeyRing("", "", "PKCS12", "", "HS256");
+
+        assertTrue(ring.getPublicKeys().getKeys().isEmpty());
+    }
+
+    @Test
+    void shouldRejectTokenSignedWithUnknownKey() {
+        JwtService issuer = jwtService(new SigningKeyRing("", "", "PKCS12", "", "HS256"));
+        JwtService verifier = jwtService(new SigningKeyRing("", "", "PKCS12", "", "HS256"));
+
+        String token = issuer.generateAccessToken("testuser");
+
+        assertThrows(Exception.class, () -> verifier.verify(token));
+    }
+
+    @Test
+    void shouldFailFastWhenActiveKeyIsMissing() throws Exception {
+        KeyStore store = newKeyStore();
+        addKey(store, "key-1");
+        Path keyStore = write(store);
+
+        assertThrows(IllegalStateException.class,
+                () -> new SigningKeyRing(keyStore.toString(), PASSWORD, "PKCS12", "key-9", "HS256"));
+    }
+
+    private static KeyStore newKeyStore() throws Exception {
+        KeyStore store = KeyStore.getInstance("PKCS12");
+        store.load(null, PASSWORD.toCharArray());
+        return store;
+    }
+
+    private static void addKey(KeyStore store, String alias) throws Exception {
+        KeyGenerator generator = KeyGenerator.getInstance("HmacSHA256");
+        generator.init(256);
+        store.setEntry(alias, new KeyStore.SecretKeyEntry(generator.generateKey()),
+                new KeyStore.PasswordProtection(PASSWORD.toCharArray()));
+    }
+
+    private Path write(KeyStore store) throws Exception {
+        Path path = tempDir.resolve("jwt-keys.p12");
+        try (OutputStream out = Files.newOutputStream(path)) {
+            store.store(out, PASSWORD.toCharArray());
+        }
+        return path;
+    }
+
+    private static String keyId(String token) {
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+        return header.replaceAll(".*\"kid\":\"([^\"]+)\".*", "$1");
+    }
+
+    private static JwtService jwtService(SigningKeyRing signingKeyRing) {
+        TokenRepository tokenRepository = mock(TokenRepository.class);
+        return new JwtService(
+                new JpaSessionStore(tokenRepository,
+                        new TokenWriteBehindBuffer(null, false, 1, 1, Duration.ofSeconds(1), Duration.ZERO)),
+                new VerifiedTokenCache(false, 0),
+                new RevocationList(tokenRepository, new RevocationJournal(false, "", DataSize.ofMegabytes(1)), 1000, 100),
+                signingKeyRing, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,50 @@
+package com.jwt.security;
+
+import com.jwt.entity.Token;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Import(TokenColumnMigration.class)
+class TokenColumnMigrationTest {
+
+    @Autowired
+    private TokenColumnMigration migration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldWidenTokenColumnsCreatedWithTheDefaultLength() {
+        jdbcTemplate.execute("alter table tokens alter column access_token set data type varchar(255)");
+        jdbcTemplate.execute("alter table tokens alter column refresh_token set data type varchar(255)");
+
+        migration.run(new DefaultApplicationArguments());
+
+        assertEquals(Token.MAX_TOKEN_LENGTH, columnLength("access_token"));
+        assertEquals(Token.MAX_TOKEN_LENGTH, columnLength("refresh_token"));
+        jdbcTemplate.update("insert into tokens (username, access_token, is_valid) values (?, ?, ?)",
+                "testuser", "a".repeat(1000), true);
+    }
+
+    @Test
+    void shouldLeaveWideColumnsAlone() {
+        migration.run(new DefaultApplicationArguments());
+
+        assertEquals(Token.MAX_TOKEN_LENGTH, columnLength("access_token"));
+    }
+
+    private int columnLength(String column) {
+        return jdbcTemplate.queryForObject("select character_maximum_length from information_schema.columns "
+                + "where lower(table_name) = 'tokens' and lower(column_name) = ?", Integer.class, column);
+    }
+}
@@ -0,0 +1,65 @@
+package com.jwt.security;
+
+import com.jwt.entity.Token;
+import com.jwt.repository.TokenRepository;
+import com.jwt.utils.TokenDigest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TokenDigestMigrationTest {
+
+    @Autowired
+    private TokenRepository tokenRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldRemoveRowsThatDuplicateAnotherRowsToken() {
+        insert("same-access", "same-refresh", true);
+        insert("same-access", "same-refresh", false);
+        insert("other-access", "other-refresh", true);
+        insert("same-access", "same-refresh", true);
+        insert("other-access", "other-refresh", true);
+        insert("third-access", "third-refresh", true);
+        RevocationList revocationList = mock(RevocationList.class);
+        TokenRepository repository = mock(TokenRepository.class, delegatesTo(tokenRepository));
+
+        new TokenDigestMigration(repository, revocationList, 2).run(new DefaultApplicationArguments());
+
+        List<Token> tokens = tokenRepository.findAll();
+        assertEquals(3, tokens.size());
+        assertTrue(tokens.stream().allMatch(token -> token.getAccessTokenHash() != null));
+        assertTrue(tokenRepository.findByAccessTokenHash(TokenDigest.sha256("other-access")).isPresent());
+        verify(revocationList).revoke(eq(TokenDigest.sha256("same-access")), any(Instant.class));
+        verify(repository, times(3)).findDigestsIn(anyCollection());
+        verify(repository, never()).findByAccessTokenHash(any());
+        verify(repository, never()).findByRefreshTokenHash(any());
+        jdbcTemplate.execute("delete from tokens");
+    }
+
+    private void insert(String accessToken, String refreshToken, boolean valid) {
+        jdbcTemplate.update("insert into tokens (username, access_token, refresh_token, is_valid) values (?, ?, ?, ?)",
+                "testuser", accessToken, refreshToken, valid);
+    }
+}
@@ -0,0 +1,49 @@
+package com.jwt.security;
+
+import com.jwt.repository.TokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TokenPurgeJobTest {
+
+    @Mock
+    private TokenRepository tokenRepository;
+
+    @Mock
+    private RevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void shouldDeleteInBatchesUntilShortBatch() {
+        when(tokenRepository.deleteExpired(any(), any(), eq(2))).thenReturn(2, 2, 1);
+        TokenPurgeJob job = new TokenPurgeJob(tokenRepository, revocationList, true, 2, Duration.ZERO, Duration.ofHours(1));
+
+        job.purge();
+
+        verify(tokenRepository, times(3)).deleteExpired(any(), any(), eq(2));
+        verify(revocationList, times(1)).prune();
+        assertEquals(5, job.getLastRunRows());
+        assertEquals(5, job.getPurgedRows());
+    }
+
+    @Test
+    void shouldDoNothingWhenDisabled() {
+        TokenPurgeJob job = new TokenPurgeJob(tokenRepository, revocationList, false, 2, Duration.ZERO, Duration.ofHours(1));
+
+        job.purge();
+
+        verifyNoInteractions(tokenRepository, revocationList);
+    }
+}
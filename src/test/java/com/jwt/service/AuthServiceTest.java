@@ -5,16 +5,24 @@ import com.jwt.entity.Token;
 import com.jwt.exception.AuthenticationException;
 import com.jwt.exception.InvalidTokenExceptionHandler;
 import com.jwt.security.JwtService;
+import com.jwt.security.VerifiedToken;
 import com.jwt.utils.AuthRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.time.Instant;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,6 +38,9 @@ class AuthServiceTest {
     @Mock
     private UserService userService;
 
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private AuthService authService;
 
@@ -61,15 +72,35 @@ class AuthServiceTest {
         when(authentication.isAuthenticated()).thenReturn(true);
         when(authentication.getPrincipal()).thenReturn(userDetails);
         when(userDetails.getUsername()).thenReturn(authRequest.getUsername());
-        when(jwtService.generateAccessToken(authRequest.getUsername())).thenReturn("newAccessToken");
+        when(jwtService.generateAccessToken(userDetails)).thenReturn("newAccessToken");
         when(jwtService.generateRefreshToken(authRequest.getUsername())).thenReturn("newRefreshToken");
 
         TokenDTO result = authService.login(authRequest);
 
         assertNotNull(result);
+        verify(jwtService, never()).getTokens();
         assertEquals("newAccessToken", result.getAccessToken());
         assertEquals("newRefreshToken", result.getRefreshToken());
         verify(jwtService, times(1)).saveToken(authRequest.getUsername(), "newAccessToken", "newRefreshToken");
+        assertEquals(1, meterRegistry.get("jwt.logins").tag("outcome", "success").counter().count());
+    }
+
+    @Test
+    void shouldReturnActiveTokenWithoutAuthenticating() {
+        Token token = new Token();
+        token.setAccessToken("activeAccessToken");
+        token.setRefreshToken("activeRefreshToken");
+        token.setValid(true);
+
+        when(userService.isUserBlocked(authRequest.getUsername())).thenReturn(false);
+        when(jwtService.getActiveToken(authRequest.getUsername())).thenReturn(Optional.of(token));
+
+        TokenDTO result = authService.login(authRequest);
+
+        assertEquals("activeAccessToken", result.getAccessToken());
+        assertEquals("activeRefreshToken", result.getRefreshToken());
+        verify(jwtService, never()).getTokens();
+        verifyNoInteractions(authenticationManager);
     }
 
     @Test
@@ -78,6 +109,7 @@ class AuthServiceTest {
 
         assertThrows(AuthenticationException.class, () -> authService.login(authRequest));
         verifyNoInteractions(authenticationManager);
+        assertEquals(1, meterRegistry.get("jwt.logins").tag("outcome", "blocked").counter().count());
     }
 
     @Test
@@ -87,27 +119,52 @@ class AuthServiceTest {
 
         assertThrows(AuthenticationException.class, () -> authService.login(authRequest));
         verify(userService, times(1)).processFailedLogin(authRequest.getUsername());
+        assertEquals(1, meterRegistry.get("jwt.logins").tag("outcome", "failure").counter().count());
     }
 
     @Test
-    void shouldGenerateAndSaveNewTokens() {
-        when(jwtService.extractUserName(tokenDTO.getRefreshToken())).thenReturn("testuser");
-        when(jwtService.generateAccessToken("testuser")).thenReturn("newAccessToken");
-        when(jwtService.generateRefreshToken("testuser")).thenReturn("newRefreshToken");
+    void shouldRotateRefreshToken() {
+        UserDetailsService userDetailsService = mock(UserDetailsService.class);
+        Token rotated = new Token();
+        rotated.setAccessToken("newAccessToken");
+        rotated.setRefreshToken("newRefreshToken");
+        when(jwtService.verify(tokenDTO.getRefreshToken())).thenReturn(verifiedToken(JwtService.REFRESH_TOKEN_TYPE));
+        when(userService.userDetailsService()).thenReturn(userDetailsService);
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
+        when(jwtService.rotateRefreshToken(tokenDTO.getRefreshToken(), userDetails)).thenReturn(Optional.of(rotated));
 
         TokenDTO result = authService.refreshToken(tokenDTO);
 
         assertNotNull(result);
         assertEquals("newAccessToken", result.getAccessToken());
         assertEquals("newRefreshToken", result.getRefreshToken());
-        verify(jwtService, times(1)).invalidateToken(tokenDTO.getRefreshToken());
-        verify(jwtService, times(1)).saveToken("testuser", "newAccessToken", "newRefreshToken");
+        verify(jwtService, never()).invalidateToken(anyString());
+        verify(jwtService, never()).saveToken(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void shouldRejectReusedRefreshToken() {
+        UserDetailsService userDetailsService = mock(UserDetailsService.class);
+        when(jwtService.verify(tokenDTO.getRefreshToken())).thenReturn(verifiedToken(JwtService.REFRESH_TOKEN_TYPE));
+        when(userService.userDetailsService()).thenReturn(userDetailsService);
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
+        when(jwtService.rotateRefreshToken(tokenDTO.getRefreshToken(), userDetails)).thenReturn(Optional.empty());
+
+        assertThrows(InvalidTokenExceptionHandler.class, () -> authService.refreshToken(tokenDTO));
+    }
+
+    @Test
+    void shouldRejectAccessTokenUsedForRefresh() {
+        when(jwtService.verify(tokenDTO.getRefreshToken())).thenReturn(verifiedToken(JwtService.ACCESS_TOKEN_TYPE));
+
+        assertThrows(InvalidTokenExceptionHandler.class, () -> authService.refreshToken(tokenDTO));
+        verify(jwtService, never()).rotateRefreshToken(anyString(), any());
     }
 
     @Test
     void shouldThrowExceptionForInvalidToken() {
 
-        when(jwtService.extractUserName(tokenDTO.getRefreshToken())).thenThrow(new RuntimeException());
+        when(jwtService.verify(tokenDTO.getRefreshToken())).thenThrow(new RuntimeException());
 
         assertThrows(InvalidTokenExceptionHandler.class, () -> authService.refreshToken(tokenDTO));
     }
@@ -137,4 +194,8 @@ class AuthServiceTest {
         assertEquals("You have already logged out", result);
         verify(jwtService, times(0)).invalidateToken(tokenDTO.getAccessToken());
     }
+
+    private static VerifiedToken verifiedToken(String type) {
+        return new VerifiedToken("id", "testuser", Instant.now(), Instant.now().plusSeconds(60), type, null, null);
+    }
 }
@@ -0,0 +1,238 @@
+package com.jwt.service;
+
+import com.jwt.dto.TokenDTO;
+import com.jwt.entity.Token;
+import com.jwt.entity.User;
+import com.jwt.exception.AuthenticationException;
+import com.jwt.exception.InvalidTokenExceptionHandler;
+import com.jwt.exception.LoginRejectedException;
+import com.jwt.repository.ReactiveTokenRepository;
+import com.jwt.repository.ReactiveUserRepository;
+import com.jwt.repository.RevokedSession;
+import com.jwt.security.JwtService;
+import com.jwt.security.VerifiedToken;
+import com.jwt.utils.AuthRequest;
+import com.jwt.utils.TokenDigest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReactiveAuthServiceTest {
+
+    @Mock
+    private ReactiveAuthenticationManager authenticationManager;
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private ReactiveUserRepository userRepository;
+
+    @Mock
+    private ReactiveTokenRepository tokenRepository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReactiveAuthService authService;
+
+    private AuthRequest authRequest;
+    private TokenDTO tokenDTO;
+    private User user;
+    private Token session;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        authService = new ReactiveAuthService(authenticationManager, jwtService, userRepository, tokenRepository,
+                meterRegistry);
+
+        authRequest = new AuthRequest();
+        authRequest.setUsername("testuser");
+        authRequest.setPassword("password");
+
+        tokenDTO = new TokenDTO();
+        tokenDTO.setAccessToken("accessToken");
+        tokenDTO.setRefreshToken("refreshToken");
+
+        user = new User();
+        user.setUsername("testuser");
+        user.setRole("ROLE_USER");
+
+        session = new Token();
+        session.setAccessToken("newAccessToken");
+        session.setRefreshToken("newRefreshToken");
+        session.setValid(true);
+
+        when(userRepository.findByUsername("testuser")).thenReturn(Mono.just(user));
+        when(tokenRepository.findActiveToken(eq("testuser"), any())).thenReturn(Mono.empty());
+        when(userRepository.recordFailedLoginsAndDetectLockout(anyString(), anyInt(), anyInt()))
+                .thenReturn(Mono.just(false));
+    }
+
+    @Test
+    void shouldAuthenticateAndReturnToken() {
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenReturn(Mono.just(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities())));
+        when(jwtService.newSession(user)).thenReturn(session);
+        when(tokenRepository.save(session)).thenReturn(Mono.empty());
+
+        StepVerifier.create(authService.login(authRequest))
+                .assertNext(result -> {
+                    assertEquals("newAccessToken", result.getAccessToken());
+                    assertEquals("newRefreshToken", result.getRefreshToken());
+                })
+                .verifyComplete();
+        verify(tokenRepository).save(session);
+        assertEquals(1, meterRegistry.get("jwt.logins").tag("outcome", "success").counter().count());
+    }
+
+    @Test
+    void shouldReturnActiveTokenWithoutAuthenticating() {
+        when(tokenRepository.findActiveToken(eq("testuser"), any())).thenReturn(Mono.just(session));
+
+        StepVerifier.create(authService.login(authRequest))
+                .assertNext(result -> assertEquals("newAccessToken", result.getAccessToken()))
+                .verifyComplete();
+        verifyNoInteractions(authenticationManager);
+        assertEquals(1, meterRegistry.get("jwt.logins").tag("outcome", "reused").counter().count());
+    }
+
+    @Test
+    void shouldRejectBlockedUser() {
+        user.setAccountNonLocked(false);
+
+        StepVerifier.create(authService.login(authRequest))
+                .verifyError(AuthenticationException.class);
+        verifyNoInteractions(authenticationManager);
+        assertEquals(1, meterRegistry.get("jwt.logins").tag("outcome", "blocked").counter().count());
+    }
+
+    @Test
+    void shouldRecordFailedLoginAndCountLockout() {
+        when(userRepository.recordFailedLoginsAndDetectLockout("testuser", 1, UserService.MAX_FAILED_LOGIN_ATTEMPTS))
+                .thenReturn(Mono.just(true));
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenReturn(Mono.error(new BadCredentialsException("bad")));
+
+        StepVerifier.create(authService.login(authRequest))
+                .verifyErrorMessage("Invalid username or password");
+        verify(userRepository).recordFailedLoginsAndDetectLockout("testuser", 1, UserService.MAX_FAILED_LOGIN_ATTEMPTS);
+        assertEquals(1, meterRegistry.get("jwt.logins").tag("outcome", "failure").counter().count());
+        assertEquals(1, meterRegistry.get("jwt.logins.lockouts").counter().count());
+    }
+
+    @Test
+    void shouldPropagateRejectedPasswordCheck() {
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenReturn(Mono.error(new RejectedExecutionException("saturated")));
+
+        StepVerifier.create(authService.login(authRequest))
+                .verifyError(LoginRejectedException.class);
+        verify(userRepository, never()).recordFailedLoginsAndDetectLockout(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void shouldRotateRefreshToken() {
+        RevokedSession revoked = new RevokedSession(1L, Instant.now());
+        when(jwtService.verify("refreshToken")).thenReturn(verifiedToken(JwtService.REFRESH_TOKEN_TYPE));
+        when(jwtService.newSession(user)).thenReturn(session);
+        when(tokenRepository.rotate(any(), eq(session))).thenReturn(Mono.just(revoked));
+
+        StepVerifier.create(authService.refreshToken(tokenDTO))
+                .assertNext(result -> assertEquals("newRefreshToken", result.getRefreshToken()))
+                .verifyComplete();
+        verify(jwtService).revoke("refreshToken", revoked);
+    }
+
+    @Test
+    void shouldRejectReusedRefreshToken() {
+        when(jwtService.verify("refreshToken")).thenReturn(verifiedToken(JwtService.REFRESH_TOKEN_TYPE));
+        when(jwtService.newSession(user)).thenReturn(session);
+        when(tokenRepository.rotate(any(), eq(session))).thenReturn(Mono.empty());
+
+        StepVerifier.create(authService.refreshToken(tokenDTO))
+                .verifyErrorMessage("Refresh token has already been used or revoked");
+    }
+
+    @Test
+    void shouldRejectAccessTokenUsedForRefresh() {
+        when(jwtService.verify("refreshToken")).thenReturn(verifiedToken(JwtService.ACCESS_TOKEN_TYPE));
+
+        StepVerifier.create(authService.refreshToken(tokenDTO))
+                .verifyErrorMessage("Invalid refresh token");
+        verify(tokenRepository, never()).rotate(any(), any());
+    }
+
+    @Test
+    void shouldRejectUnparseableRefreshToken() {
+        when(jwtService.verify("refreshToken")).thenThrow(new RuntimeException());
+
+        StepVerifier.create(authService.refreshToken(tokenDTO))
+                .verifyError(InvalidTokenExceptionHandler.class);
+    }
+
+    @Test
+    void shouldInvalidateAccessToken() {
+        RevokedSession revoked = new RevokedSession(1L, Instant.now());
+        when(tokenRepository.findByAccessTokenHash(TokenDigest.sha256("accessToken"))).thenReturn(Mono.just(session));
+        when(tokenRepository.invalidate(TokenDigest.sha256("accessToken"))).thenReturn(Mono.just(revoked));
+
+        StepVerifier.create(authService.logout(tokenDTO))
+                .expectNext("Successfully logged out")
+                .verifyComplete();
+        verify(jwtService).revoke("accessToken", revoked);
+    }
+
+    @Test
+    void shouldReturnAlreadyLoggedOutMessageForInvalidToken() {
+        session.setValid(false);
+        when(tokenRepository.findByAccessTokenHash(any())).thenReturn(Mono.just(session));
+
+        StepVerifier.create(authService.logout(tokenDTO))
+                .expectNext("You have already logged out")
+                .verifyComplete();
+        verify(tokenRepository, never()).invalidate(any());
+    }
+
+    @Test
+    void shouldFailLogoutForUnknownToken() {
+        when(tokenRepository.findByAccessTokenHash(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(authService.logout(tokenDTO))
+                .verifyError(NoSuchElementException.class);
+    }
+
+    @Test
+    void shouldRevokeAllSessions() {
+        RevokedSession first = new RevokedSession(1L, Instant.now());
+        RevokedSession second = new RevokedSession(2L, Instant.now());
+        when(tokenRepository.invalidateAll("testuser")).thenReturn(Mono.just(List.of(first, second)));
+
+        StepVerifier.create(authService.logoutAll("testuser"))
+                .expectNext("Logged out of 2 session(s)")
+                .verifyComplete();
+        verify(jwtService).revoke(first);
+        verify(jwtService).revoke(second);
+    }
+
+    private static VerifiedToken verifiedToken(String type) {
+        return new VerifiedToken("id", "testuser", Instant.now(), Instant.now().plusSeconds(60), type, null, null);
+    }
+}
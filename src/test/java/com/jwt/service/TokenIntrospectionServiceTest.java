@@ -0,0 +1,106 @@
+package com.jwt.service;
+
+import com.jwt.dto.IntrospectionDTO;
+import com.jwt.entity.User;
+import com.jwt.exception.TooManyTokensException;
+import com.jwt.repository.TokenHashView;
+import com.jwt.repository.JpaSessionStore;
+import com.jwt.repository.TokenRepository;
+import com.jwt.repository.TokenWriteBehindBuffer;
+import com.jwt.security.JwtService;
+import com.jwt.security.RevocationJournal;
+import com.jwt.security.RevocationList;
+import com.jwt.security.SigningKeyRing;
+import com.jwt.security.VerifiedTokenCache;
+import com.jwt.utils.TokenDigest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class TokenIntrospectionServiceTest {
+
+    private TokenRepository tokenRepository;
+    private RevocationList revocationList;
+    private JwtService jwtService;
+    private TokenIntrospectionService introspectionService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        tokenRepository = mock(TokenRepository.class);
+        revocationList = new RevocationList(tokenRepository,
+                new RevocationJournal(false, "", DataSize.ofMegabytes(1)), 1000, 100);
+        TokenWriteBehindBuffer writeBehindBuffer =
+                new TokenWriteBehindBuffer(null, false, 1, 1, Duration.ofSeconds(1), Duration.ZERO);
+        JpaSessionStore sessionStore = new JpaSessionStore(tokenRepository, writeBehindBuffer);
+        jwtService = new JwtService(sessionStore, new VerifiedTokenCache(false, 0), revocationList,
+                new SigningKeyRing("", "", "PKCS12", "", "HS256"), new SimpleMeterRegistry());
+        introspectionService = new TokenIntrospectionService(jwtService, sessionStore, revocationList, 3);
+
+        user = new User();
+        user.setId(7L);
+        user.setUsername("testuser");
+        user.setRole("ROLE_USER");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldResolveBatchWithSingleQuery() {
+        String active = jwtService.generateAccessToken(user);
+        String loggedOut = jwtService.generateAccessToken(user);
+        TokenHashView activeView = view(active);
+        when(tokenRepository.findByAccessTokenHashInAndIsValidTrue(anyCollection()))
+                .thenReturn(List.of(activeView));
+
+        List<IntrospectionDTO> result = introspectionService.introspect(List.of(active, loggedOut, active));
+
+        assertTrue(result.get(0).isActive());
+        assertEquals("testuser", result.get(0).getSubject());
+        assertEquals(List.of("ROLE_USER"), result.get(0).getAuthorities());
+        assertNotNull(result.get(0).getExp());
+        assertFalse(result.get(1).isActive());
+        assertNull(result.get(1).getSubject());
+        assertTrue(result.get(2).isActive());
+
+        ArgumentCaptor<Collection<byte[]>> hashes = ArgumentCaptor.forClass(Collection.class);
+        verify(tokenRepository, times(1)).findByAccessTokenHashInAndIsValidTrue(hashes.capture());
+        assertEquals(2, hashes.getValue().size());
+    }
+
+    @Test
+    void shouldReportInvalidRevokedAndRefreshTokensInactiveWithoutQuerying() {
+        String revoked = jwtService.generateAccessToken(user);
+        revocationList.revoke(TokenDigest.sha256(revoked), Instant.now().plusSeconds(60));
+
+        List<IntrospectionDTO> result = introspectionService.introspect(
+                List.of("not-a-jwt", revoked, jwtService.generateRefreshToken("testuser")));
+
+        assertTrue(result.stream().noneMatch(IntrospectionDTO::isActive));
+        verify(tokenRepository, never()).findByAccessTokenHashInAndIsValidTrue(anyCollection());
+    }
+
+    @Test
+    void shouldRejectOversizedBatch() {
+        List<String> tokens = Arrays.asList("a", "b", "c", "d");
+
+        assertThrows(TooManyTokensException.class, () -> introspectionService.introspect(tokens));
+    }
+
+    private static TokenHashView view(String token) {
+        TokenHashView view = mock(TokenHashView.class);
+        when(view.getAccessTokenHash()).thenReturn(TokenDigest.sha256(token));
+        return view;
+    }
+}
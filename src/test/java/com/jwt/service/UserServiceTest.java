@@ -5,9 +5,10 @@ import com.jwt.entity.Role;
 import com.jwt.entity.User;
 import com.jwt.exception.UserExistException;
 import com.jwt.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 
 import org.mockito.MockitoAnnotations;
@@ -15,6 +16,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import java.time.Duration;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -26,7 +29,6 @@ class UserServiceTest {
     @Mock
     private RoleService roleService;
 
-    @InjectMocks
     private UserService userService;
 
     private User user;
@@ -35,6 +37,8 @@ class UserServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        userService = new UserService(userRepository, roleService, new UserCache(false, 0, Duration.ZERO),
+                new SimpleMeterRegistry(), false);
 
         user = new User();
         user.setId(1L);
@@ -104,35 +108,124 @@ class UserServiceTest {
     }
 
     @Test
-    void shouldProcessFailedLoginAndLockAccountTest() {
+    void shouldRecordFailedLoginWithSingleUpdateTest() {
+        userService.processFailedLogin(user.getUsername());
+
+        verify(userRepository, times(1)).recordFailedLoginsAndDetectLockout(user.getUsername(), 1, 5);
+        verify(userRepository, never()).findByUsername(any());
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldCountLockoutWhenFailedLoginCrossesThresholdTest() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        userService = new UserService(userRepository, roleService, new UserCache(true, 100, Duration.ofMinutes(1)),
+                meterRegistry, false);
         user.setFailedLoginAttempts(5);
         when(userRepository.findByUsername(user.getUsername())).thenReturn(user);
+        when(userRepository.recordFailedLoginsAndDetectLockout(user.getUsername(), 1, 5)).thenReturn(true);
 
+        userService.isUserBlocked(user.getUsername());
         userService.processFailedLogin(user.getUsername());
 
-        assertFalse(user.isAccountNonLocked());
-        verify(userRepository, times(1)).save(user);
+        assertEquals(1, meterRegistry.get("jwt.logins.lockouts").counter().count());
     }
 
     @Test
-    void shouldProcessFailedLoginAndIncrementAttemptsTest() {
-        user.setFailedLoginAttempts(2);
+    void shouldNotCountLockoutFromStaleCachedUserTest() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        userService = new UserService(userRepository, roleService, new UserCache(true, 100, Duration.ofMinutes(1)),
+                meterRegistry, false);
+        user.setFailedLoginAttempts(5);
         when(userRepository.findByUsername(user.getUsername())).thenReturn(user);
+        when(userRepository.recordFailedLoginsAndDetectLockout(user.getUsername(), 1, 5)).thenReturn(false);
 
+        userService.isUserBlocked(user.getUsername());
         userService.processFailedLogin(user.getUsername());
 
-        assertEquals(3, user.getFailedLoginAttempts());
-        assertTrue(user.isAccountNonLocked());
-        verify(userRepository, times(1)).save(user);
+        verify(userRepository).recordFailedLoginsAndDetectLockout(user.getUsername(), 1, 5);
+        assertEquals(0, meterRegistry.get("jwt.logins.lockouts").counter().count());
     }
 
     @Test
+    void shouldCollapseBufferedFailedLoginsIntoOneUpdateTest() {
+        userService = new UserService(userRepository, roleService, new UserCache(false, 0, Duration.ZERO),
+                new SimpleMeterRegistry(), true);
 
-    void shouldDoNothingIfUserNotFoundDuringFailedLoginTest() {
-        when(userRepository.findByUsername(user.getUsername())).thenReturn(null);
+        for (int i = 0; i < 3; i++) {
+            userService.processFailedLogin(user.getUsername());
+        }
+        verify(userRepository, never()).recordFailedLoginsAndDetectLockout(any(), anyInt(), anyInt());
+
+        userService.flushFailedLogins();
+        userService.flushFailedLogins();
+
+        verify(userRepository, times(1)).recordFailedLoginsAndDetectLockout(user.getUsername(), 3, 5);
+    }
+
+    @Test
+    void shouldBlockUserWhenPendingFailedLoginsCrossThresholdTest() {
+        userService = new UserService(userRepository, roleService, new UserCache(false, 0, Duration.ZERO),
+                new SimpleMeterRegistry(), true);
+        user.setFailedLoginAttempts(3);
+        when(userRepository.findByUsername(user.getUsername())).thenReturn(user);
 
         userService.processFailedLogin(user.getUsername());
+        userService.processFailedLogin(user.getUsername());
+        assertFalse(userService.isUserBlocked(user.getUsername()));
 
-        verify(userRepository, never()).save(any());
+        userService.processFailedLogin(user.getUsername());
+        assertTrue(userService.isUserBlocked(user.getUsername()));
+    }
+
+    @Test
+    void shouldKeepBufferedFailedLoginsWhenFlushFailsTest() {
+        userService = new UserService(userRepository, roleService, new UserCache(false, 0, Duration.ZERO),
+                new SimpleMeterRegistry(), true);
+        when(userRepository.recordFailedLoginsAndDetectLockout(user.getUsername(), 2, 5))
+                .thenThrow(new RuntimeException("database unavailable"))
+                .thenReturn(false);
+
+        userService.processFailedLogin(user.getUsername());
+        userService.processFailedLogin(user.getUsername());
+        userService.flushFailedLogins();
+        userService.flushFailedLogins();
+
+        verify(userRepository, times(2)).recordFailedLoginsAndDetectLockout(user.getUsername(), 2, 5);
+    }
+
+    @Test
+    void shouldReadUserOnceWithinCacheWindowTest() {
+        UserCache userCache = new UserCache(true, 100, Duration.ofMinutes(1));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        userCache.bindTo(meterRegistry);
+        userService = new UserService(userRepository, roleService, userCache,
+                new SimpleMeterRegistry(), false);
+        when(userRepository.findByUsername(user.getUsername())).thenReturn(user);
+
+        userService.isUserBlocked(user.getUsername());
+        userService.userDetailsService().loadUserByUsername(user.getUsername());
+        userService.userDetailsService().loadUserByUsername(user.getUsername());
+
+        verify(userRepository, times(1)).findByUsername(user.getUsername());
+        assertEquals(2, userCache.stats().hitCount());
+        assertEquals(2, meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void shouldEvictCachedUserOnFailedLoginTest() {
+        userService = new UserService(userRepository, roleService, new UserCache(true, 100, Duration.ofMinutes(1)),
+                new SimpleMeterRegistry(), false);
+        User locked = new User();
+        locked.setUsername(user.getUsername());
+        locked.setAccountNonLocked(false);
+        when(userRepository.findByUsername(user.getUsername())).thenReturn(user, locked);
+
+        assertFalse(userService.isUserBlocked(user.getUsername()));
+        userService.processFailedLogin(user.getUsername());
+
+        assertTrue(userService.isUserBlocked(user.getUsername()));
+        verify(userRepository, times(2)).findByUsername(user.getUsername());
     }
 }
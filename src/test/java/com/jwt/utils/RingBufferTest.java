@@ -0,0 +1,71 @@
+package com.jwt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferTest {
+
+    @Test
+    void shouldRejectOffersWhenFull() {
+        RingBuffer<Integer> ringBuffer = new RingBuffer<>(4);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ringBuffer.offer(i));
+        }
+
+        assertFalse(ringBuffer.offer(4));
+        assertEquals(0, ringBuffer.poll());
+        assertTrue(ringBuffer.offer(4));
+    }
+
+    @Test
+    void shouldPollInPublicationOrder() {
+        RingBuffer<String> ringBuffer = new RingBuffer<>(8);
+        ringBuffer.offer("a");
+        ringBuffer.offer("b");
+
+        assertEquals("a", ringBuffer.poll());
+        assertEquals("b", ringBuffer.poll());
+        assertNull(ringBuffer.poll());
+    }
+
+    @Test
+    void shouldDeliverEveryItemFromConcurrentProducers() throws Exception {
+        RingBuffer<Integer> ringBuffer = new RingBuffer<>(1024);
+        int producers = 4;
+        int perProducer = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            int offset = p * perProducer;
+            executor.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!ringBuffer.offer(offset + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        Set<Integer> received = new HashSet<>();
+        while (received.size() < producers * perProducer) {
+            Integer item = ringBuffer.poll();
+            if (item != null) {
+                assertTrue(received.add(item));
+            }
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertNull(ringBuffer.poll());
+    }
+}
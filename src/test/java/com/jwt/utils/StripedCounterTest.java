@@ -0,0 +1,59 @@
+package com.jwt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedCounterTest {
+
+    @Test
+    void shouldDrainAndRemoveCounters() {
+        StripedCounter<String> counter = new StripedCounter<>();
+        counter.increment("a");
+        counter.add("a", 2);
+        counter.increment("b");
+
+        AtomicLong drained = new AtomicLong();
+        counter.drain((key, count) -> drained.addAndGet(count));
+
+        assertEquals(4, drained.get());
+        assertEquals(0, counter.get("a"));
+
+        counter.drain((key, count) -> drained.addAndGet(count));
+        assertEquals(4, drained.get());
+        assertEquals(0, counter.size());
+    }
+
+    @Test
+    void shouldNotLoseIncrementsRacingWithDrain() throws InterruptedException {
+        StripedCounter<String> counter = new StripedCounter<>();
+        int threads = 4;
+        int incrementsPerThread = 100_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicLong drained = new AtomicLong();
+
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < incrementsPerThread; i++) {
+                    counter.increment("user");
+                }
+                done.countDown();
+            });
+        }
+        while (done.getCount() > 0) {
+            counter.drain((key, count) -> drained.addAndGet(count));
+        }
+        counter.drain((key, count) -> drained.addAndGet(count));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals((long) threads * incrementsPerThread, drained.get());
+    }
+}